@@ -0,0 +1,88 @@
+package com.example.priceselectorapi.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Shared data and stubs for the benchmarks. Prices follow the sample data of product 35455.
+ */
+final class BenchmarkFixtures {
+
+    static final LocalDateTime APPLICATION_DATE = LocalDateTime.of(2020, 6, 14, 16, 0);
+    static final Long PRODUCT_ID = 35455L;
+    static final Integer BRAND_ID = 1;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * The application logs at DEBUG by default; benchmarks measure the code, not the console.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        ((Logger) LoggerFactory.getLogger("com.example.priceselectorapi")).setLevel(Level.WARN);
+    }
+
+    static Price basePrice() {
+        return PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                LocalDateTime.of(2020, 6, 14, 0, 0), LocalDateTime.of(2020, 12, 31, 23, 59, 59),
+                new BigDecimal("35.50"), "EUR");
+    }
+
+    static Price promotionPrice() {
+        return PriceFactory.createPrice(2L, BRAND_ID, 2, PRODUCT_ID, 1,
+                LocalDateTime.of(2020, 6, 14, 15, 0), LocalDateTime.of(2020, 6, 14, 18, 30),
+                new BigDecimal("25.45"), "EUR");
+    }
+
+    static Row row(Price price) {
+        return new StubRow(new Object[]{
+                price.getId(), price.getBrandId(), price.getStartDate(), price.getEndDate(), price.getPriceList(),
+                price.getProductId(), price.getPriority(), price.getPriceAmount(), price.getCurr()});
+    }
+
+    /**
+     * Row in the column order of the PRICES table. Name lookups scan the column names
+     * case-insensitively, as drivers do.
+     */
+    private static final class StubRow implements Row {
+
+        private static final String[] COLUMNS = {
+                "ID", "BRAND_ID", "START_DATE", "END_DATE", "PRICE_LIST",
+                "PRODUCT_ID", "PRIORITY", "PRICE_AMOUNT", "CURR"};
+
+        private final Object[] values;
+
+        private StubRow(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public RowMetadata getMetadata() {
+            throw new UnsupportedOperationException("Row metadata is not needed by the mapper");
+        }
+
+        @Override
+        public <T> T get(int index, Class<T> type) {
+            return type.cast(values[index]);
+        }
+
+        @Override
+        public <T> T get(String name, Class<T> type) {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (COLUMNS[i].equalsIgnoreCase(name)) {
+                    return get(i, type);
+                }
+            }
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.priceselectorapi.benchmark;
+
+import com.example.priceselectorapi.application.cache.PriceCacheKeyGenerator;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    private final PriceCacheKeyGenerator cacheKeyGenerator = new PriceCacheKeyGenerator();
+    private final String key = cacheKeyGenerator.generateKey(
+            BenchmarkFixtures.APPLICATION_DATE, BenchmarkFixtures.PRODUCT_ID, BenchmarkFixtures.BRAND_ID);
+
+    @Benchmark
+    public String generateKey() {
+        return cacheKeyGenerator.generateKey(
+                BenchmarkFixtures.APPLICATION_DATE, BenchmarkFixtures.PRODUCT_ID, BenchmarkFixtures.BRAND_ID);
+    }
+
+    @Benchmark
+    public Optional<PriceLookupKey> parseKey() {
+        return cacheKeyGenerator.parseKey(key);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.priceselectorapi.benchmark;
+
+import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import com.example.priceselectorapi.application.mapper.PriceMapper;
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.infrastructure.repository.mapper.PriceRowMapper;
+import io.r2dbc.spi.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row to domain and domain to DTO mapping, the per-row and per-response costs of a lookup.
+ * Compare {@code gc.alloc.rate.norm} of the two row mapper modes for the bytes allocated per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final PriceRowMapper namedRowMapper = new PriceRowMapper(PriceRowMapper.MappingMode.NAMED);
+    private final PriceRowMapper positionalRowMapper = new PriceRowMapper(PriceRowMapper.MappingMode.POSITIONAL);
+    private final PriceMapper priceMapper = new PriceMapper();
+
+    private Row row;
+    private Price price;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        price = BenchmarkFixtures.promotionPrice();
+        row = BenchmarkFixtures.row(price);
+    }
+
+    @Benchmark
+    public Price mapRowToPriceNamed() {
+        return namedRowMapper.mapRowToPrice(row, null);
+    }
+
+    @Benchmark
+    public Price mapRowToPricePositional() {
+        return positionalRowMapper.mapRowToPrice(row, null);
+    }
+
+    @Benchmark
+    public PriceResponseDTO toResponseDTO() {
+        return priceMapper.toResponseDTO(price);
+    }
+}
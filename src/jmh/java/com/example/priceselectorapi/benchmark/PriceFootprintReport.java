@@ -0,0 +1,86 @@
+package com.example.priceselectorapi.benchmark;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import com.example.priceselectorapi.infrastructure.repository.mapper.PriceRowMapper;
+import com.example.priceselectorapi.infrastructure.repository.memory.CompactPrice;
+import com.example.priceselectorapi.infrastructure.repository.memory.PriceIntervalIndex;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retained bytes per price of the object graphs the catalog can be held in, measured with JOL.
+ * Not a JMH benchmark: run it through the benchmark profile with
+ * {@code -Dbenchmark.main=com.example.priceselectorapi.benchmark.PriceFootprintReport -Djmh.args=}.
+ * <p>
+ * Single-price graphs include their currency string; in a loaded catalog that string is shared,
+ * which the catalog rows reflect.
+ */
+public final class PriceFootprintReport {
+
+    private static final int PRODUCTS = 10_000;
+
+    private PriceFootprintReport() {
+    }
+
+    public static void main(String[] args) {
+        BenchmarkFixtures.quietLogging();
+
+        Price factoryPrice = BenchmarkFixtures.basePrice();
+        Price mappedPrice = new PriceRowMapper(PriceRowMapper.MappingMode.POSITIONAL)
+                .mapRowToPrice(BenchmarkFixtures.row(factoryPrice), null);
+        Price materializedPrice = new PriceRowMapper(PriceRowMapper.MappingMode.POSITIONAL)
+                .mapRowToPrice(BenchmarkFixtures.row(factoryPrice), null);
+        materializedPrice.getValidityPeriod();
+        materializedPrice.getPrice();
+        CompactPrice compactPrice = CompactPrice.of(factoryPrice);
+
+        List<Price> catalog = catalog();
+        List<CompactPrice> compactCatalog = catalog.stream().map(CompactPrice::of).toList();
+        PriceIntervalIndex index = PriceIntervalIndex.of(catalog);
+
+        System.out.println(ClassLayout.parseInstance(compactPrice).toPrintable());
+        System.out.printf("%-50s %12s%n", "Representation", "bytes/price");
+        row("Price (factory, value objects built)", GraphLayout.parseInstance(factoryPrice).totalSize(), 1);
+        row("Price (positional row mapper, lazy)", GraphLayout.parseInstance(mappedPrice).totalSize(), 1);
+        row("Price (positional row mapper, value objects used)",
+                GraphLayout.parseInstance(materializedPrice).totalSize(), 1);
+        row("CompactPrice", GraphLayout.parseInstance(compactPrice).totalSize(), 1);
+        row("Catalog as List<Price>", GraphLayout.parseInstance(catalog).totalSize(), catalog.size());
+        row("Catalog as List<CompactPrice>", GraphLayout.parseInstance(compactCatalog).totalSize(), catalog.size());
+        row("PriceIntervalIndex (prices, timelines, keys)", GraphLayout.parseInstance(index).totalSize(), catalog.size());
+    }
+
+    /**
+     * The base and promotion prices of product 35455 repeated for every product, built by the factory
+     * as the catalog was held before the compact index. Each price gets its own date-time and amount
+     * instances, as rows read from the database do.
+     */
+    private static List<Price> catalog() {
+        List<Price> template = List.of(BenchmarkFixtures.basePrice(), BenchmarkFixtures.promotionPrice());
+        List<Price> catalog = new ArrayList<>(PRODUCTS * template.size());
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            for (Price price : template) {
+                catalog.add(PriceFactory.createPrice(
+                        productId * 10 + price.getPriceList(), price.getBrandId(), price.getPriceList(), productId,
+                        price.getPriority(), copy(price.getStartDate()), copy(price.getEndDate()),
+                        new BigDecimal(price.getPriceAmount().toPlainString()), price.getCurr()));
+            }
+        }
+        return catalog;
+    }
+
+    private static LocalDateTime copy(LocalDateTime dateTime) {
+        return LocalDateTime.of(dateTime.getYear(), dateTime.getMonth(), dateTime.getDayOfMonth(),
+                dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond());
+    }
+
+    private static void row(String label, long totalBytes, int prices) {
+        System.out.printf("%-50s %12d%n", label, totalBytes / prices);
+    }
+}
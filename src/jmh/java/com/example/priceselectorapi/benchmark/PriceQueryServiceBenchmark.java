@@ -0,0 +1,80 @@
+package com.example.priceselectorapi.benchmark;
+
+import com.example.priceselectorapi.application.cache.CacheEvictionFence;
+import com.example.priceselectorapi.application.cache.CacheKeyIndex;
+import com.example.priceselectorapi.application.cache.PriceCacheKeyGenerator;
+import com.example.priceselectorapi.application.cache.ReactiveCacheService;
+import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import com.example.priceselectorapi.application.mapper.PriceMapper;
+import com.example.priceselectorapi.application.service.PriceQueryService;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup from service entry to response DTO over a repository that answers from memory, so
+ * the score is everything the application adds on top of the database round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceQueryServiceBenchmark {
+
+    private final PriceMapper priceMapper = new PriceMapper();
+
+    private PriceQueryService cachedService;
+    private PriceQueryService uncachedService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        PriceRepositoryPort repository = new StubPriceRepository(
+                List.of(BenchmarkFixtures.promotionPrice(), BenchmarkFixtures.basePrice()));
+        PriceCacheKeyGenerator cacheKeyGenerator = new PriceCacheKeyGenerator();
+        CacheKeyIndex cacheKeyIndex = new CacheKeyIndex(cacheKeyGenerator);
+        CacheEvictionFence evictionFence = new CacheEvictionFence(cacheKeyGenerator);
+
+        cachedService = new PriceQueryService(repository,
+                new ReactiveCacheService(ReactiveCacheServiceBenchmark.productionCacheManager(cacheKeyIndex, repository,
+                        ReactiveCacheServiceBenchmark.refresher(repository, cacheKeyGenerator, cacheKeyIndex,
+                                evictionFence)),
+                        cacheKeyIndex, evictionFence, new SimpleMeterRegistry()),
+                cacheKeyGenerator);
+        uncachedService = new PriceQueryService(repository,
+                new ReactiveCacheService(new NoOpCacheManager(), cacheKeyIndex, evictionFence, new SimpleMeterRegistry()),
+                cacheKeyGenerator);
+    }
+
+    @Benchmark
+    public PriceResponseDTO cacheHit() {
+        return lookup(cachedService);
+    }
+
+    @Benchmark
+    public PriceResponseDTO cacheMiss() {
+        return lookup(uncachedService);
+    }
+
+    private PriceResponseDTO lookup(PriceQueryService service) {
+        return service.findApplicablePrice(
+                        BenchmarkFixtures.APPLICATION_DATE, BenchmarkFixtures.PRODUCT_ID, BenchmarkFixtures.BRAND_ID)
+                .map(priceMapper::toResponseDTO)
+                .block();
+    }
+}
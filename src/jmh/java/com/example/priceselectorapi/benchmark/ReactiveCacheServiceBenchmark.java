@@ -0,0 +1,107 @@
+package com.example.priceselectorapi.benchmark;
+
+import com.example.priceselectorapi.application.cache.CacheKeyGenerator;
+import com.example.priceselectorapi.application.cache.CacheEvictionFence;
+import com.example.priceselectorapi.application.cache.CacheKeyIndex;
+import com.example.priceselectorapi.application.cache.PriceCacheKeyGenerator;
+import com.example.priceselectorapi.application.cache.PriceCacheRefresher;
+import com.example.priceselectorapi.application.cache.ReactiveCacheService;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.infrastructure.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache layer over the production Caffeine configuration. Misses cycle through more distinct
+ * keys than the cache holds, so every load also pays for the insert and the eviction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactiveCacheServiceBenchmark {
+
+    private static final int MISS_KEYS = 1 << 16;
+
+    private final Object value = BenchmarkFixtures.promotionPrice();
+    private final Mono<Object> load = Mono.just(value);
+
+    private ReactiveCacheService reactiveCacheService;
+    private String hitKey;
+    private String[] missKeys;
+    private int nextMissKey;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        PriceCacheKeyGenerator cacheKeyGenerator = new PriceCacheKeyGenerator();
+        CacheKeyIndex cacheKeyIndex = new CacheKeyIndex(cacheKeyGenerator);
+        CacheEvictionFence evictionFence = new CacheEvictionFence(cacheKeyGenerator);
+        PriceRepositoryPort repository = new StubPriceRepository(List.of(BenchmarkFixtures.promotionPrice()));
+        reactiveCacheService = new ReactiveCacheService(
+                productionCacheManager(cacheKeyIndex, repository,
+                        refresher(repository, cacheKeyGenerator, cacheKeyIndex, evictionFence)),
+                cacheKeyIndex, evictionFence, new SimpleMeterRegistry());
+
+        hitKey = cacheKeyGenerator.generateKey(
+                BenchmarkFixtures.APPLICATION_DATE, BenchmarkFixtures.PRODUCT_ID, BenchmarkFixtures.BRAND_ID);
+        reactiveCacheService.get(hitKey, () -> load).block();
+
+        missKeys = new String[MISS_KEYS];
+        for (int i = 0; i < MISS_KEYS; i++) {
+            missKeys[i] = cacheKeyGenerator.generateKey(
+                    BenchmarkFixtures.APPLICATION_DATE.plusMinutes(i + 1L), BenchmarkFixtures.PRODUCT_ID, BenchmarkFixtures.BRAND_ID);
+        }
+    }
+
+    @Benchmark
+    public Object hit() {
+        return reactiveCacheService.get(hitKey, () -> load).block();
+    }
+
+    @Benchmark
+    public Object miss() {
+        String key = missKeys[nextMissKey++ & (MISS_KEYS - 1)];
+        return reactiveCacheService.get(key, () -> load).block();
+    }
+
+    static CacheManager productionCacheManager(CacheKeyIndex cacheKeyIndex, PriceRepositoryPort repository,
+                                               PriceCacheRefresher refresher) {
+        CacheConfig cacheConfig = new CacheConfig();
+        ReflectionTestUtils.setField(cacheConfig, "pricesCacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cacheConfig, "pricesCacheSettledTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(cacheConfig, "refreshAheadEnabled", true);
+        ReflectionTestUtils.setField(cacheConfig, "refreshAheadAfter", Duration.ofMinutes(4));
+        ReflectionTestUtils.setField(cacheConfig, "pricesCacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(cacheConfig, "negativeCacheEnabled", true);
+        ReflectionTestUtils.setField(cacheConfig, "negativeCacheTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(cacheConfig, "negativeCacheMaxSize", 10000L);
+        return cacheConfig.cacheManager(cacheKeyIndex, new PriceCacheKeyGenerator(), refresher, repository, Clock.systemUTC());
+    }
+
+    static PriceCacheRefresher refresher(PriceRepositoryPort repository, CacheKeyGenerator cacheKeyGenerator,
+                                         CacheKeyIndex cacheKeyIndex, CacheEvictionFence evictionFence) {
+        return new PriceCacheRefresher(repository, cacheKeyGenerator, cacheKeyIndex, evictionFence,
+                new StaticListableBeanFactory().getBeanProvider(CacheManager.class), Clock.systemUTC(), new SimpleMeterRegistry());
+    }
+}
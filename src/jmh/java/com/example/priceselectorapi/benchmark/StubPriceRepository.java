@@ -0,0 +1,42 @@
+package com.example.priceselectorapi.benchmark;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository answering every lookup with the same prices, without I/O.
+ */
+final class StubPriceRepository implements PriceRepositoryPort {
+
+    private final List<Price> prices;
+
+    StubPriceRepository(List<Price> prices) {
+        this.prices = prices;
+    }
+
+    @Override
+    public Flux<Price> findApplicablePrices(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        return Flux.fromIterable(prices);
+    }
+
+    @Override
+    public Flux<Price> findApplicablePrices(Collection<PriceLookupKey> keys) {
+        return Flux.fromIterable(prices);
+    }
+
+    @Override
+    public Flux<Price> findApplicablePricesByBrand(LocalDateTime applicationDate, Integer brandId) {
+        return Flux.fromIterable(prices);
+    }
+
+    @Override
+    public Flux<Price> findPricesInRange(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId) {
+        return Flux.fromIterable(prices);
+    }
+}
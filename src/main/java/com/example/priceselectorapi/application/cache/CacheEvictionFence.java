@@ -0,0 +1,80 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orders cache evictions against the loads already running when they happen, so such a load
+ * cannot put back a value it read before the eviction.
+ * <p>
+ * Every eviction takes the next sequence number and records it for the product or brand it
+ * covers, or for everything on a clear, before it removes any entry. A load reads
+ * {@link #current} before it starts and asks {@link #isEvictedSince} after putting its value,
+ * evicting the key again itself when the answer is yes: either the eviction runs after the put
+ * and removes it, or the load sees the eviction. A single key is fenced through its product.
+ * <p>
+ * One sequence number is kept per evicted product and brand.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheEvictionFence {
+
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<ProductKey, Long> productEvictions = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> brandEvictions = new ConcurrentHashMap<>();
+    private volatile long lastClear;
+
+    public long current() {
+        return sequence.get();
+    }
+
+    public void evictKey(String key) {
+        Optional<PriceLookupKey> lookupKey = cacheKeyGenerator.parseKey(key);
+        if (lookupKey.isPresent()) {
+            evictProduct(lookupKey.get().getBrandId(), lookupKey.get().getProductId());
+        } else {
+            evictAll();
+        }
+    }
+
+    public void evictProduct(Integer brandId, Long productId) {
+        productEvictions.merge(new ProductKey(brandId, productId), sequence.incrementAndGet(), Math::max);
+    }
+
+    public void evictBrand(Integer brandId) {
+        brandEvictions.merge(brandId, sequence.incrementAndGet(), Math::max);
+    }
+
+    public void evictAll() {
+        lastClear = sequence.incrementAndGet();
+    }
+
+    /**
+     * Whether an eviction covering the key was recorded after {@code startedAt}, a value of
+     * {@link #current} taken before the load of the key started.
+     */
+    public boolean isEvictedSince(String key, long startedAt) {
+        if (lastClear > startedAt) {
+            return true;
+        }
+        return cacheKeyGenerator.parseKey(key)
+                .map(lookupKey -> brandEvictions.getOrDefault(lookupKey.getBrandId(), 0L) > startedAt
+                        || productEvictions.getOrDefault(
+                                new ProductKey(lookupKey.getBrandId(), lookupKey.getProductId()), 0L) > startedAt)
+                .orElse(false);
+    }
+
+    @Value
+    private static class ProductKey {
+        Integer brandId;
+        Long productId;
+    }
+}
@@ -1,8 +1,16 @@
 package com.example.priceselectorapi.application.cache;
 
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 public interface CacheKeyGenerator {
     
     String generateKey(LocalDateTime applicationDate, Long productId, Integer brandId);
-} 
\ No newline at end of file
+    
+    /**
+     * Inverse of {@link #generateKey}; empty for keys not produced by this generator.
+     */
+    Optional<PriceLookupKey> parseKey(String key);
+}
@@ -0,0 +1,108 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Secondary index from (brandId, productId) to the price cache keys currently stored for it,
+ * so a product or a brand can be evicted without knowing the application dates in its keys.
+ * <p>
+ * Each key records the names of the caches holding it. Writers {@link #register} a key right
+ * after putting it; the caches {@link #unregister} it from their eviction listener, which Caffeine
+ * runs synchronously while it removes an evicted entry, and explicit evictions unregister a key
+ * before removing it. Both operations are idempotent and a replaced entry keeps its key, so with
+ * that ordering a key held by a cache is never missing from the index. At worst the index keeps
+ * a key a cache dropped on its own, which costs a no-op eviction.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheKeyIndex {
+
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final Map<ProductKey, Map<String, Set<String>>> keysByProduct = new ConcurrentHashMap<>();
+
+    public void register(String cacheName, String key) {
+        cacheKeyGenerator.parseKey(key).ifPresent(lookupKey ->
+                keysByProduct.compute(productKey(lookupKey), (product, keys) -> {
+                    Map<String, Set<String>> productKeys = keys != null ? keys : new ConcurrentHashMap<>();
+                    productKeys.merge(key, Set.of(cacheName), CacheKeyIndex::union);
+                    return productKeys;
+                }));
+    }
+
+    /**
+     * Records that one cache does not hold the key anymore; the key leaves the index once no
+     * cache holds it.
+     */
+    public void unregister(String cacheName, String key) {
+        cacheKeyGenerator.parseKey(key).ifPresent(lookupKey ->
+                keysByProduct.computeIfPresent(productKey(lookupKey), (product, keys) -> {
+                    keys.computeIfPresent(key, (cacheKey, caches) -> {
+                        Set<String> remaining = new HashSet<>(caches);
+                        remaining.remove(cacheName);
+                        return remaining.isEmpty() ? null : Set.copyOf(remaining);
+                    });
+                    return keys.isEmpty() ? null : keys;
+                }));
+    }
+
+    /**
+     * Removes the key for every cache, ahead of evicting it from all of them.
+     */
+    public void unregister(String key) {
+        cacheKeyGenerator.parseKey(key).ifPresent(lookupKey ->
+                keysByProduct.computeIfPresent(productKey(lookupKey), (product, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                }));
+    }
+
+    public void clear() {
+        keysByProduct.clear();
+    }
+
+    public Set<String> keysOfProduct(Integer brandId, Long productId) {
+        Map<String, Set<String>> keys = keysByProduct.get(new ProductKey(brandId, productId));
+        return keys == null ? Set.of() : Set.copyOf(keys.keySet());
+    }
+
+    public Set<String> keysOfBrand(Integer brandId) {
+        return keysByProduct.entrySet().stream()
+                .filter(entry -> entry.getKey().getBrandId().equals(brandId))
+                .flatMap(entry -> entry.getValue().keySet().stream())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public int size() {
+        return keysByProduct.values().stream()
+                .mapToInt(Map::size)
+                .sum();
+    }
+
+    private static ProductKey productKey(PriceLookupKey lookupKey) {
+        return new ProductKey(lookupKey.getBrandId(), lookupKey.getProductId());
+    }
+
+    private static Set<String> union(Set<String> caches, Set<String> added) {
+        if (caches.containsAll(added)) {
+            return caches;
+        }
+        Set<String> union = new HashSet<>(caches);
+        union.addAll(added);
+        return Set.copyOf(union);
+    }
+
+    @Value
+    private static class ProductKey {
+        Integer brandId;
+        Long productId;
+    }
+}
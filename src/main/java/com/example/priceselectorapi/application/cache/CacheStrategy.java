@@ -2,13 +2,56 @@ package com.example.priceselectorapi.application.cache;
 
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public interface CacheStrategy<T> {
     
     Mono<T> get(String key, Supplier<Mono<T>> valueSupplier);
     
+    /**
+     * Returns the cached value of the key without loading it on a miss; empty when none is cached.
+     * Only a hit is recorded, so a caller going on to {@link #get} counts a miss once.
+     */
+    Mono<T> getIfPresent(String key);
+    
+    /**
+     * Resolves several keys at once: cached entries are served directly and all misses are
+     * handed to {@code missingLoader} in a single call. The result holds only keys with a value.
+     */
+    Mono<Map<String, T>> getAll(Collection<String> keys, Function<Set<String>, Mono<Map<String, T>>> missingLoader);
+    
+    /**
+     * Returns the last value loaded for the key even if it has since expired from the cache, for
+     * use as a fallback when the value cannot be loaded; empty when none is kept.
+     */
+    Mono<T> getStale(String key);
+    
     void evict(String key);
     
+    /**
+     * Evicts every entry of one product, whatever its application date.
+     *
+     * @return The number of evicted keys.
+     */
+    int evictProduct(Integer brandId, Long productId);
+    
+    /**
+     * Evicts every entry of every product of a brand.
+     *
+     * @return The number of evicted keys.
+     */
+    int evictBrand(Integer brandId);
+    
     void clear();
-} 
\ No newline at end of file
+    
+    /**
+     * Returns up to {@code limit} cached keys, most frequently used first, or an empty list
+     * when the cache keeps no usage data.
+     */
+    List<String> hottestKeys(int limit);
+}
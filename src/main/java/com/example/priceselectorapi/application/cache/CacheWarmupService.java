@@ -0,0 +1,170 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.port.PriceQueryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Carries the hottest entries of the prices cache across restarts. Every
+ * {@code app.cache.warmup.save-interval} and at shutdown the top {@code app.cache.warmup.top-keys}
+ * keys, ranked by Caffeine's frequency sketch, are written to {@code app.cache.warmup.file}.
+ * <p>
+ * As an {@link ApplicationRunner} it replays the saved keys through
+ * {@link PriceQueryPort#findApplicablePrice} before the application reports ready, with at most
+ * {@code app.cache.warmup.concurrency} lookups in flight and giving up on the remaining keys once
+ * {@code app.cache.warmup.deadline} has passed.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cache.warmup.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmupService implements ApplicationRunner {
+
+    private final CacheStrategy<Object> cacheStrategy;
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final PriceQueryPort priceQueryPort;
+
+    @Value("${app.cache.warmup.file:${java.io.tmpdir}/price-selector/hot-keys.txt}")
+    private Path file;
+
+    @Value("${app.cache.warmup.top-keys:500}")
+    private int topKeys = 500;
+
+    @Value("${app.cache.prices.max-size:1000}")
+    private long cacheMaxSize = 1000;
+
+    @Value("${app.cache.warmup.save-interval:PT1M}")
+    private Duration saveInterval = Duration.ofMinutes(1);
+
+    @Value("${app.cache.warmup.concurrency:8}")
+    private int concurrency = 8;
+
+    @Value("${app.cache.warmup.deadline:PT10S}")
+    private Duration deadline = Duration.ofSeconds(10);
+
+    private Disposable periodicSaves;
+
+    /**
+     * Caffeine only starts its frequency sketch once the cache is half full. Below
+     * {@code top-keys} entries every key is saved anyway, so with {@code top-keys} at most half
+     * of {@code app.cache.prices.max-size} the keys are only ranked when the sketch is there.
+     */
+    @PostConstruct
+    public void init() {
+        if (topKeys > cacheMaxSize / 2) {
+            throw new IllegalStateException("app.cache.warmup.top-keys (" + topKeys
+                    + ") must be at most half of app.cache.prices.max-size (" + cacheMaxSize + ")");
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp().block();
+
+        if (!saveInterval.isZero() && !saveInterval.isNegative()) {
+            periodicSaves = Flux.interval(saveInterval, saveInterval, Schedulers.boundedElastic())
+                    .subscribe(tick -> saveHotKeys());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (periodicSaves != null) {
+            periodicSaves.dispose();
+        }
+        saveHotKeys();
+    }
+
+    /**
+     * Replays the saved keys, hottest first. Failed lookups are skipped.
+     *
+     * @return A Mono with the number of keys replayed before completion or the deadline.
+     */
+    public Mono<Integer> warmUp() {
+        List<PriceLookupKey> keys = readHotKeys();
+        if (keys.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger replayed = new AtomicInteger();
+        return Flux.fromIterable(keys)
+                .flatMap(key -> priceQueryPort.findApplicablePrice(
+                                        key.getApplicationDate(), key.getProductId(), key.getBrandId())
+                                .doOnSuccess(price -> replayed.incrementAndGet())
+                                .onErrorResume(error -> {
+                                    log.debug("Cache warm-up lookup failed for {}: {}", key, error.getMessage());
+                                    return Mono.empty();
+                                }),
+                        concurrency)
+                .then()
+                .timeout(deadline, Mono.fromRunnable(() ->
+                        log.warn("Cache warm-up reached its {} deadline", deadline)))
+                .then(Mono.fromCallable(() -> {
+                    log.info("Cache warm-up replayed {} of {} hot keys in {} ms",
+                            replayed.get(), keys.size(), (System.nanoTime() - start) / 1_000_000);
+                    return replayed.get();
+                }));
+    }
+
+    /**
+     * Writes the current hottest keys over the previous file. An empty cache leaves the
+     * previous file in place, so an idle instance does not forget what was hot before.
+     */
+    public void saveHotKeys() {
+        List<String> keys = cacheStrategy.hottestKeys(topKeys);
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(temporary, keys, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} hot cache keys to {}", keys.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not save hot cache keys to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private List<PriceLookupKey> readHotKeys() {
+        if (!Files.isRegularFile(file)) {
+            log.info("No hot cache keys at {}, starting with a cold cache", file);
+            return List.of();
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.map(cacheKeyGenerator::parseKey)
+                    .flatMap(Optional::stream)
+                    .distinct()
+                    .limit(topKeys)
+                    .toList();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read hot cache keys from {}: {}", file, e.getMessage());
+            return List.of();
+        }
+    }
+}
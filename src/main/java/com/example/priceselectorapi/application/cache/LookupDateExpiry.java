@@ -0,0 +1,91 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Caffeine expiry keyed off the application date of the cached lookup and the validity of the
+ * cached price. A lookup for a moment already past is settled history that scheduled price changes
+ * do not reach, and is kept for {@code settledTtl}. A lookup for now or later is kept until the
+ * cached price stops winning, at most {@code settledTtl}: the end of its timeline segment, which
+ * includes the start of the next higher-priority price, when the repository holds the timeline in
+ * memory, otherwise the price's end date. A key that is not a lookup, or a value without an end,
+ * gets {@code defaultTtl}.
+ * <p>
+ * Reads do not extend an entry. A rewrite recomputes its expiry, except for settled lookups, which
+ * keep their remaining time so a refresh cannot keep them cached forever.
+ */
+public class LookupDateExpiry implements Expiry<Object, Object> {
+
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final PriceRepositoryPort priceRepositoryPort;
+    private final Duration defaultTtl;
+    private final Duration settledTtl;
+    private final Clock clock;
+
+    public LookupDateExpiry(CacheKeyGenerator cacheKeyGenerator, PriceRepositoryPort priceRepositoryPort,
+                            Duration defaultTtl, Duration settledTtl, Clock clock) {
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        this.priceRepositoryPort = priceRepositoryPort;
+        this.defaultTtl = defaultTtl;
+        this.settledTtl = settledTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether the key is a lookup of a moment already past by the catalog clock.
+     */
+    public static boolean isSettled(PriceLookupKey lookupKey, Clock clock) {
+        return lookupKey.getApplicationDate().isBefore(LocalDateTime.now(clock));
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return ttlOf(key, value).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        Optional<PriceLookupKey> lookupKey = cacheKeyGenerator.parseKey(String.valueOf(key));
+        if (lookupKey.isPresent() && isSettled(lookupKey.get(), clock)) {
+            return currentDuration;
+        }
+        return ttlOf(key, value).toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    Duration ttlOf(Object key, Object value) {
+        Optional<PriceLookupKey> parsed = cacheKeyGenerator.parseKey(String.valueOf(key));
+        if (parsed.isEmpty()) {
+            return defaultTtl;
+        }
+        PriceLookupKey lookupKey = parsed.get();
+        if (isSettled(lookupKey, clock)) {
+            return settledTtl;
+        }
+        if (!(value instanceof Price price)) {
+            return defaultTtl;
+        }
+
+        LocalDateTime validUntil = priceRepositoryPort
+                .findSegmentEnd(lookupKey.getApplicationDate(), lookupKey.getProductId(), lookupKey.getBrandId())
+                .orElse(price.getEndDate());
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (validUntil == null || !validUntil.isAfter(now)) {
+            return defaultTtl;
+        }
+        Duration remaining = Duration.between(now, validUntil);
+        return remaining.compareTo(settledTtl) > 0 ? settledTtl : remaining;
+    }
+}
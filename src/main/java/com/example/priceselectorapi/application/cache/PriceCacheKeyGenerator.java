@@ -1,12 +1,17 @@
 package com.example.priceselectorapi.application.cache;
 
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
 
 @Component
 public class PriceCacheKeyGenerator implements CacheKeyGenerator {
 
+    private static final char SEPARATOR = '_';
+
     @Override
     public String generateKey(LocalDateTime applicationDate, Long productId, Integer brandId) {
         return String.format("%s_%d_%d", 
@@ -14,4 +19,22 @@ public class PriceCacheKeyGenerator implements CacheKeyGenerator {
             productId, 
             brandId);
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Optional<PriceLookupKey> parseKey(String key) {
+        int brandSeparator = key.lastIndexOf(SEPARATOR);
+        int productSeparator = brandSeparator > 0 ? key.lastIndexOf(SEPARATOR, brandSeparator - 1) : -1;
+        if (productSeparator <= 0) {
+            return Optional.empty();
+        }
+        
+        try {
+            return Optional.of(PriceLookupKey.of(
+                LocalDateTime.parse(key.substring(0, productSeparator)),
+                Long.parseLong(key.substring(productSeparator + 1, brandSeparator)),
+                Integer.parseInt(key.substring(brandSeparator + 1))));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
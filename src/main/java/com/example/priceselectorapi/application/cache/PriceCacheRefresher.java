@@ -0,0 +1,130 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Caffeine loader behind the refresh-ahead mode of the prices cache: once an entry is older than
+ * {@code refreshAfterWrite} the next read still returns it and triggers a single background
+ * reload of the key from the repository.
+ * <p>
+ * Misses are not loaded here: the prices cache reads entries without its loader, so they keep
+ * going through the single-flight and negative caching of {@link ReactiveCacheService}, and
+ * {@link #load} refuses to run. A reload that finds no
+ * applicable price anymore removes the entry; a failed reload keeps the old value. A lookup of a
+ * moment already past is settled and not reloaded: it keeps its value, and {@link LookupDateExpiry}
+ * keeps its expiry, until {@code app.cache.prices.settled-ttl} runs out.
+ * <p>
+ * A reloaded value is written through to the stale cache, as loads do, unless its key was
+ * evicted since the reload started. A replaced entry keeps its key in the {@link CacheKeyIndex};
+ * an entry dropped by a reload stays indexed until its product or brand is evicted.
+ * <p>
+ * The cache manager is looked up lazily, since it is built with this loader.
+ */
+@Component
+@Slf4j
+public class PriceCacheRefresher implements CacheLoader<Object, Object> {
+
+    private static final String CACHE_NAME = "prices";
+    private static final String STALE_CACHE_NAME = "prices-stale";
+
+    private final PriceRepositoryPort priceRepositoryPort;
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final CacheKeyIndex cacheKeyIndex;
+    private final CacheEvictionFence evictionFence;
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+    private final Clock clock;
+    private final Counter successfulRefreshes;
+    private final Counter emptyRefreshes;
+    private final Counter failedRefreshes;
+
+    public PriceCacheRefresher(PriceRepositoryPort priceRepositoryPort, CacheKeyGenerator cacheKeyGenerator,
+                               CacheKeyIndex cacheKeyIndex, CacheEvictionFence evictionFence,
+                               ObjectProvider<CacheManager> cacheManagerProvider, Clock clock,
+                               MeterRegistry meterRegistry) {
+        this.priceRepositoryPort = priceRepositoryPort;
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        this.cacheKeyIndex = cacheKeyIndex;
+        this.evictionFence = evictionFence;
+        this.cacheManagerProvider = cacheManagerProvider;
+        this.clock = clock;
+        this.successfulRefreshes = refreshCounter(meterRegistry, "success");
+        this.emptyRefreshes = refreshCounter(meterRegistry, "empty");
+        this.failedRefreshes = refreshCounter(meterRegistry, "failure");
+    }
+
+    @Override
+    public Object load(Object key) {
+        throw new UnsupportedOperationException("Prices cache misses are loaded by ReactiveCacheService, not by the cache");
+    }
+
+    @Override
+    public CompletableFuture<Object> asyncReload(Object key, Object oldValue, Executor executor) {
+        String cacheKey = String.valueOf(key);
+        Optional<PriceLookupKey> lookupKey = cacheKeyGenerator.parseKey(cacheKey);
+        if (lookupKey.isEmpty()) {
+            return CompletableFuture.completedFuture(oldValue);
+        }
+
+        PriceLookupKey lookup = lookupKey.get();
+        if (LookupDateExpiry.isSettled(lookup, clock)) {
+            log.debug("Not reloading settled lookup for key: {}", cacheKey);
+            return CompletableFuture.completedFuture(oldValue);
+        }
+        long reloadStartedAt = evictionFence.current();
+        return priceRepositoryPort.findApplicablePrices(lookup.getApplicationDate(), lookup.getProductId(), lookup.getBrandId())
+                .next()
+                .cast(Object.class)
+                .doOnNext(price -> {
+                    putStale(cacheKey, price, reloadStartedAt);
+                    successfulRefreshes.increment();
+                    log.debug("Refreshed cache entry for key: {}", cacheKey);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> {
+                    emptyRefreshes.increment();
+                    log.debug("No applicable price anymore for key: {}, dropping cache entry", cacheKey);
+                }))
+                .onErrorResume(error -> {
+                    failedRefreshes.increment();
+                    log.warn("Failed to refresh cache entry for key: {}, keeping the cached value", cacheKey, error);
+                    return Mono.just(oldValue);
+                })
+                .toFuture();
+    }
+
+    private void putStale(String key, Object value, long reloadStartedAt) {
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        Cache staleCache = cacheManager != null ? cacheManager.getCache(STALE_CACHE_NAME) : null;
+        if (staleCache == null) {
+            return;
+        }
+        staleCache.put(key, value);
+        cacheKeyIndex.register(STALE_CACHE_NAME, key);
+        if (evictionFence.isEvictedSince(key, reloadStartedAt)) {
+            staleCache.evict(key);
+            log.debug("Dropped value reloaded for key: {} from cache '{}', evicted while reloading", key, STALE_CACHE_NAME);
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("price.cache.refreshes")
+                .description("Background reloads of cache entries past their refresh interval")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,21 +1,85 @@
 package com.example.priceselectorapi.application.cache;
 
-import lombok.RequiredArgsConstructor;
+import com.example.priceselectorapi.application.metrics.CacheEvictionEvent;
+import com.example.priceselectorapi.application.metrics.PriceLookupEvent;
+import com.example.priceselectorapi.application.metrics.RequestStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ReactiveCacheService implements CacheStrategy<Object> {
 
-    private final CacheManager cacheManager;
     private static final String CACHE_NAME = "prices";
+    private static final String NEGATIVE_CACHE_NAME = "prices-negative";
+    private static final String STALE_CACHE_NAME = "prices-stale";
+
+    private final CacheManager cacheManager;
+    private final CacheKeyIndex cacheKeyIndex;
+    private final CacheEvictionFence evictionFence;
+    private final Map<String, Mono<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Counter deduplicatedLoads;
+    private final Counter positiveHits;
+    private final Counter negativeHits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter successfulLoads;
+    private final Counter emptyLoads;
+    private final Counter failedLoads;
+    private final Timer cacheLookups;
+
+    public ReactiveCacheService(CacheManager cacheManager, CacheKeyIndex cacheKeyIndex,
+                                CacheEvictionFence evictionFence, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.cacheKeyIndex = cacheKeyIndex;
+        this.evictionFence = evictionFence;
+        this.deduplicatedLoads = Counter.builder("price.cache.loads.deduplicated")
+                .description("Cache misses that joined a load already in flight for the same key")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        this.positiveHits = Counter.builder("price.cache.hits")
+                .description("Lookups answered from the cache")
+                .tag("cache", CACHE_NAME)
+                .tag("type", "positive")
+                .register(meterRegistry);
+        this.negativeHits = Counter.builder("price.cache.hits")
+                .description("Lookups answered from the cache")
+                .tag("cache", CACHE_NAME)
+                .tag("type", "negative")
+                .register(meterRegistry);
+        this.staleHits = Counter.builder("price.cache.hits")
+                .description("Lookups answered from the cache")
+                .tag("cache", CACHE_NAME)
+                .tag("type", "stale")
+                .register(meterRegistry);
+        this.misses = Counter.builder("price.cache.misses")
+                .description("Lookups not answered from the cache")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        this.successfulLoads = loadCounter(meterRegistry, "success");
+        this.emptyLoads = loadCounter(meterRegistry, "empty");
+        this.failedLoads = loadCounter(meterRegistry, "failure");
+        this.cacheLookups = RequestStage.CACHE.timer(meterRegistry);
+    }
 
     @Override
     public Mono<Object> get(String key, Supplier<Mono<Object>> valueSupplier) {
@@ -25,37 +89,348 @@ public class ReactiveCacheService implements CacheStrategy<Object> {
             return valueSupplier.get();
         }
 
+        PriceLookupEvent lookupEvent = new PriceLookupEvent();
+        lookupEvent.begin();
+        long lookupStartedAt = System.nanoTime();
         Cache.ValueWrapper cachedValue = cache.get(key);
         if (cachedValue != null) {
             log.debug("Cache hit for key: {}", key);
+            positiveHits.increment();
+            recordLookup(lookupStartedAt);
+            commitLookup(lookupEvent, key, "hit");
             return Mono.justOrEmpty(cachedValue.get());
         }
 
+        Cache negativeCache = cacheManager.getCache(NEGATIVE_CACHE_NAME);
+        if (negativeCache != null && negativeCache.get(key) != null) {
+            log.debug("Negative cache hit for key: {}", key);
+            negativeHits.increment();
+            recordLookup(lookupStartedAt);
+            commitLookup(lookupEvent, key, "negative-hit");
+            return Mono.empty();
+        }
+
         log.debug("Cache miss for key: {}", key);
-        return valueSupplier.get()
-                .doOnNext(value -> {
-                    if (value != null) {
-                        cache.put(key, value);
-                        log.debug("Cached value for key: {}", key);
-                    }
-                });
+        misses.increment();
+        recordLookup(lookupStartedAt);
+        return sharedLoad(key, cache, negativeCache, valueSupplier, lookupEvent);
+    }
+
+    private void recordLookup(long startedAt) {
+        cacheLookups.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private static void commitLookup(PriceLookupEvent lookupEvent, String key, String outcome) {
+        if (lookupEvent.shouldCommit()) {
+            lookupEvent.key = key;
+            lookupEvent.outcome = outcome;
+            lookupEvent.commit();
+        }
+    }
+
+    /**
+     * Single-flight: concurrent misses for the same key subscribe to one pending load
+     * instead of each calling the supplier. The load is registered when a miss is subscribed,
+     * not when it is assembled, and unregistered once it terminates, after its value has been
+     * cached, or as soon as one of its subscribers cancels, so the next miss starts a fresh load.
+     * An empty result is remembered in the negative cache, when one is configured, as a sentinel
+     * entry. Values are also written through to the stale cache, when one is configured, for
+     * {@link #getStale}. A key evicted while its load was running is not cached by that load, see
+     * {@link CacheEvictionFence}. The lookup event of the miss is committed once the value reaches
+     * its subscriber.
+     */
+    private Mono<Object> sharedLoad(String key, Cache cache, Cache negativeCache,
+                                    Supplier<Mono<Object>> valueSupplier, PriceLookupEvent lookupEvent) {
+        return Mono.defer(() -> {
+            Mono<Object> load = newLoad(key, cache, negativeCache, valueSupplier);
+            Mono<Object> inFlight = inFlightLoads.putIfAbsent(key, load);
+            if (inFlight != null) {
+                deduplicatedLoads.increment();
+                log.debug("Joined in-flight load for key: {}", key);
+                return follow(key, inFlight, lookupEvent, "joined");
+            }
+            return follow(key, load, lookupEvent, "miss");
+        });
+    }
+
+    private Mono<Object> newLoad(String key, Cache cache, Cache negativeCache, Supplier<Mono<Object>> valueSupplier) {
+        AtomicReference<Mono<Object>> self = new AtomicReference<>();
+        Mono<Object> load = Mono.defer(() -> {
+                    long loadStartedAt = evictionFence.current();
+                    return Mono.defer(valueSupplier)
+                            .doOnNext(value -> {
+                                if (value != null) {
+                                    putLoaded(cache, CACHE_NAME, key, value, loadStartedAt);
+                                    putStale(key, value, loadStartedAt);
+                                    successfulLoads.increment();
+                                    log.debug("Cached value for key: {}", key);
+                                }
+                            })
+                            .switchIfEmpty(Mono.fromRunnable(() -> {
+                                emptyLoads.increment();
+                                if (negativeCache != null) {
+                                    putLoaded(negativeCache, NEGATIVE_CACHE_NAME, key, EmptyResult.INSTANCE, loadStartedAt);
+                                    log.debug("Cached empty result for key: {}", key);
+                                }
+                            }));
+                })
+                .doOnError(error -> failedLoads.increment())
+                .doFinally(signal -> inFlightLoads.remove(key, self.get()))
+                .cache();
+        self.set(load);
+        return load;
+    }
+
+    /**
+     * The cached load does not see its subscribers cancel, so each of them unregisters it itself.
+     */
+    private Mono<Object> follow(String key, Mono<Object> load, PriceLookupEvent lookupEvent, String outcome) {
+        return load
+                .doOnCancel(() -> inFlightLoads.remove(key, load))
+                .doFinally(signal -> commitLookup(lookupEvent, key, outcome));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getAll(Collection<String> keys,
+                                            Function<Set<String>, Mono<Map<String, Object>>> missingLoader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            log.warn("Cache '{}' not found, loading all keys directly", CACHE_NAME);
+            return missingLoader.apply(new LinkedHashSet<>(keys));
+        }
+        Cache negativeCache = cacheManager.getCache(NEGATIVE_CACHE_NAME);
+
+        Map<String, Object> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (found.containsKey(key) || missing.contains(key)) {
+                continue;
+            }
+            Cache.ValueWrapper cachedValue = cache.get(key);
+            if (cachedValue != null && cachedValue.get() != null) {
+                positiveHits.increment();
+                found.put(key, cachedValue.get());
+            } else if (negativeCache != null && negativeCache.get(key) != null) {
+                negativeHits.increment();
+            } else {
+                misses.increment();
+                missing.add(key);
+            }
+        }
+
+        log.debug("Batch cache lookup for {} keys: {} hits, {} misses", keys.size(), found.size(), missing.size());
+        if (missing.isEmpty()) {
+            return Mono.just(found);
+        }
+
+        return Mono.defer(() -> {
+                    long loadStartedAt = evictionFence.current();
+                    return missingLoader.apply(missing)
+                            .defaultIfEmpty(Map.of())
+                            .map(loaded -> {
+                                for (String key : missing) {
+                                    Object value = loaded.get(key);
+                                    if (value != null) {
+                                        putLoaded(cache, CACHE_NAME, key, value, loadStartedAt);
+                                        putStale(key, value, loadStartedAt);
+                                        successfulLoads.increment();
+                                        found.put(key, value);
+                                    } else {
+                                        emptyLoads.increment();
+                                        if (negativeCache != null) {
+                                            putLoaded(negativeCache, NEGATIVE_CACHE_NAME, key, EmptyResult.INSTANCE,
+                                                    loadStartedAt);
+                                        }
+                                    }
+                                }
+                                return found;
+                            });
+                })
+                .doOnError(error -> failedLoads.increment(missing.size()));
+    }
+
+    private void putStale(String key, Object value, long loadStartedAt) {
+        Cache staleCache = cacheManager.getCache(STALE_CACHE_NAME);
+        if (staleCache != null) {
+            putLoaded(staleCache, STALE_CACHE_NAME, key, value, loadStartedAt);
+        }
+    }
+
+    /**
+     * Puts a loaded value and registers its key. When the key was evicted after the load started
+     * the value is taken out again, since the eviction may have run before the put.
+     */
+    private void putLoaded(Cache cache, String cacheName, String key, Object value, long loadStartedAt) {
+        cache.put(key, value);
+        cacheKeyIndex.register(cacheName, key);
+        if (evictionFence.isEvictedSince(key, loadStartedAt)) {
+            cache.evict(key);
+            log.debug("Dropped value loaded for key: {} from cache '{}', evicted while loading", key, cacheName);
+        }
+    }
+
+    @Override
+    public Mono<Object> getIfPresent(String key) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || !isCached(cache, key)) {
+            return Mono.empty();
+        }
+        Cache.ValueWrapper cachedValue = cache.get(key);
+        if (cachedValue == null || cachedValue.get() == null) {
+            return Mono.empty();
+        }
+        log.debug("Cache hit for key: {} without loading", key);
+        positiveHits.increment();
+        return Mono.just(cachedValue.get());
+    }
+
+    /**
+     * Checks for the key without recording a hit or a miss in the cache's own statistics.
+     */
+    private static boolean isCached(Cache cache, String key) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().policy().getIfPresentQuietly(key) != null;
+        }
+        return cache.get(key) != null;
+    }
+
+    @Override
+    public Mono<Object> getStale(String key) {
+        Cache staleCache = cacheManager.getCache(STALE_CACHE_NAME);
+        Cache.ValueWrapper staleValue = staleCache == null ? null : staleCache.get(key);
+        if (staleValue == null || staleValue.get() == null) {
+            log.debug("No stale value for key: {}", key);
+            return Mono.empty();
+        }
+        log.debug("Stale cache hit for key: {}", key);
+        staleHits.increment();
+        return Mono.just(staleValue.get());
     }
 
     @Override
     public void evict(String key) {
+        CacheEvictionEvent evictionEvent = new CacheEvictionEvent();
+        evictionEvent.begin();
+        evictionFence.evictKey(key);
+        cacheKeyIndex.unregister(key);
         Cache cache = cacheManager.getCache(CACHE_NAME);
         if (cache != null) {
             cache.evict(key);
             log.debug("Evicted cache entry for key: {}", key);
         }
+        Cache negativeCache = cacheManager.getCache(NEGATIVE_CACHE_NAME);
+        if (negativeCache != null) {
+            negativeCache.evict(key);
+        }
+        Cache staleCache = cacheManager.getCache(STALE_CACHE_NAME);
+        if (staleCache != null) {
+            staleCache.evict(key);
+        }
+        commitEviction(evictionEvent, "key", key, 1);
+    }
+
+    @Override
+    public int evictProduct(Integer brandId, Long productId) {
+        CacheEvictionEvent evictionEvent = new CacheEvictionEvent();
+        evictionEvent.begin();
+        evictionFence.evictProduct(brandId, productId);
+        int evicted = evictAll(cacheKeyIndex.keysOfProduct(brandId, productId));
+        log.debug("Evicted {} cache entries for productId: {}, brandId: {}", evicted, productId, brandId);
+        commitEviction(evictionEvent, "product", "brandId=" + brandId + ", productId=" + productId, evicted);
+        return evicted;
+    }
+
+    @Override
+    public int evictBrand(Integer brandId) {
+        CacheEvictionEvent evictionEvent = new CacheEvictionEvent();
+        evictionEvent.begin();
+        evictionFence.evictBrand(brandId);
+        int evicted = evictAll(cacheKeyIndex.keysOfBrand(brandId));
+        log.debug("Evicted {} cache entries for brandId: {}", evicted, brandId);
+        commitEviction(evictionEvent, "brand", "brandId=" + brandId, evicted);
+        return evicted;
+    }
+
+    private int evictAll(Set<String> keys) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Cache negativeCache = cacheManager.getCache(NEGATIVE_CACHE_NAME);
+        Cache staleCache = cacheManager.getCache(STALE_CACHE_NAME);
+        for (String key : keys) {
+            cacheKeyIndex.unregister(key);
+            if (cache != null) {
+                cache.evict(key);
+            }
+            if (negativeCache != null) {
+                negativeCache.evict(key);
+            }
+            if (staleCache != null) {
+                staleCache.evict(key);
+            }
+        }
+        return keys.size();
     }
 
     @Override
     public void clear() {
+        CacheEvictionEvent evictionEvent = new CacheEvictionEvent();
+        evictionEvent.begin();
+        evictionFence.evictAll();
+        cacheKeyIndex.clear();
         Cache cache = cacheManager.getCache(CACHE_NAME);
         if (cache != null) {
             cache.clear();
             log.debug("Cleared cache: {}", CACHE_NAME);
         }
+        Cache negativeCache = cacheManager.getCache(NEGATIVE_CACHE_NAME);
+        if (negativeCache != null) {
+            negativeCache.clear();
+            log.debug("Cleared cache: {}", NEGATIVE_CACHE_NAME);
+        }
+        Cache staleCache = cacheManager.getCache(STALE_CACHE_NAME);
+        if (staleCache != null) {
+            staleCache.clear();
+            log.debug("Cleared cache: {}", STALE_CACHE_NAME);
+        }
+        commitEviction(evictionEvent, "all", null, -1);
+    }
+
+    private static void commitEviction(CacheEvictionEvent evictionEvent, String scope, String target, int keys) {
+        if (evictionEvent.shouldCommit()) {
+            evictionEvent.scope = scope;
+            evictionEvent.target = target;
+            evictionEvent.keys = keys;
+            evictionEvent.commit();
+        }
+    }
+
+    /**
+     * Reads Caffeine's frequency sketch through its size-eviction policy, so the ranking is the
+     * one eviction itself uses.
+     */
+    @Override
+    public List<String> hottestKeys(int limit) {
+        if (!(cacheManager.getCache(CACHE_NAME) instanceof CaffeineCache caffeineCache)) {
+            return List.of();
+        }
+        return caffeineCache.getNativeCache().policy().eviction()
+                .map(eviction -> eviction.hottest(limit).keySet().stream()
+                        .map(String::valueOf)
+                        .toList())
+                .orElse(List.of());
+    }
+
+    private static Counter loadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("price.cache.loads")
+                .description("Loads of missed keys, by whether they found a value")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sentinel stored in the negative cache for keys whose lookup found no value.
+     */
+    enum EmptyResult {
+        INSTANCE
     }
-} 
\ No newline at end of file
+}
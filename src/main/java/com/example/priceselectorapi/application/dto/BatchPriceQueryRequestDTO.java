@@ -0,0 +1,42 @@
+package com.example.priceselectorapi.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPriceQueryRequestDTO {
+    
+    public static final int MAX_ITEMS = 100;
+    
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    private List<@NotNull @Valid Item> items;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        @NotNull
+        private LocalDateTime applicationDate;
+        @NotNull
+        @Min(1)
+        private Long productId;
+        @NotNull
+        @Min(1)
+        private Integer brandId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.priceselectorapi.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPriceQueryResponseDTO {
+    
+    private List<Result> results;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private LocalDateTime applicationDate;
+        private Long productId;
+        private Integer brandId;
+        private Status status;
+        private PriceResponseDTO price;
+    }
+    
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+}
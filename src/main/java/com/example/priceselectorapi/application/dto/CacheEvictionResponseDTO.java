@@ -0,0 +1,16 @@
+package com.example.priceselectorapi.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEvictionResponseDTO {
+    private Integer brandId;
+    private Long productId;
+    private Integer evictedEntries;
+}
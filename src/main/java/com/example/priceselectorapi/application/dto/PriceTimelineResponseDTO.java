@@ -0,0 +1,34 @@
+package com.example.priceselectorapi.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceTimelineResponseDTO {
+    private Long productId;
+    private Integer brandId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Segment> segments;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Segment {
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+        private Integer priceList;
+        private BigDecimal finalPrice;
+        private String currency;
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.priceselectorapi.application.mapper;
 
+import com.example.priceselectorapi.application.dto.BatchPriceQueryResponseDTO;
 import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import com.example.priceselectorapi.application.dto.PriceTimelineResponseDTO;
 import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.timeline.PriceSegment;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Component
 public class PriceMapper {
 
@@ -18,4 +25,33 @@ public class PriceMapper {
                 .currency(price.getCurr())
                 .build();
     }
-} 
\ No newline at end of file
+
+    public BatchPriceQueryResponseDTO.Result toBatchResultDTO(PriceLookupKey key, Price price) {
+        return BatchPriceQueryResponseDTO.Result.builder()
+                .applicationDate(key.getApplicationDate())
+                .productId(key.getProductId())
+                .brandId(key.getBrandId())
+                .status(price != null ? BatchPriceQueryResponseDTO.Status.FOUND : BatchPriceQueryResponseDTO.Status.NOT_FOUND)
+                .price(price != null ? toResponseDTO(price) : null)
+                .build();
+    }
+
+    public PriceTimelineResponseDTO toTimelineResponseDTO(LocalDateTime from, LocalDateTime to, Long productId,
+                                                          Integer brandId, List<PriceSegment> segments) {
+        return PriceTimelineResponseDTO.builder()
+                .productId(productId)
+                .brandId(brandId)
+                .from(from)
+                .to(to)
+                .segments(segments.stream()
+                        .map(segment -> PriceTimelineResponseDTO.Segment.builder()
+                                .startDate(segment.getStartDate())
+                                .endDate(segment.getEndDate())
+                                .priceList(segment.getPrice().getPriceList())
+                                .finalPrice(segment.getPrice().getPriceAmount())
+                                .currency(segment.getPrice().getCurr())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
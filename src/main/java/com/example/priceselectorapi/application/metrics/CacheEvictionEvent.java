@@ -0,0 +1,30 @@
+package com.example.priceselectorapi.application.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for an explicit eviction from the price caches, of one key, the keys of a product or
+ * a brand, or everything.
+ */
+@Name("com.example.priceselectorapi.CacheEviction")
+@Label("Cache Eviction")
+@Category("Price Selector API")
+@Description("Explicit eviction from the price caches")
+public class CacheEvictionEvent extends Event {
+
+    @Label("Scope")
+    @Description("key, product, brand or all")
+    public String scope;
+
+    @Label("Target")
+    @Description("The evicted key, or the brand and product ids of the evicted keys")
+    public String target;
+
+    @Label("Keys")
+    @Description("Keys evicted, -1 when the caches were cleared")
+    public int keys;
+}
@@ -0,0 +1,29 @@
+package com.example.priceselectorapi.application.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning one price query, from subscription until it completes, fails or is
+ * cancelled.
+ */
+@Name("com.example.priceselectorapi.PriceDbQuery")
+@Label("Price DB Query")
+@Category("Price Selector API")
+@Description("Price query sent to the database")
+public class PriceDbQueryEvent extends Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Rows")
+    @Description("Rows read before the query ended")
+    public int rows;
+
+    @Label("Outcome")
+    @Description("complete, error or cancel")
+    public String outcome;
+}
@@ -0,0 +1,25 @@
+package com.example.priceselectorapi.application.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning one cached price lookup, from the cache check until its value, or the
+ * load behind a miss, is available.
+ */
+@Name("com.example.priceselectorapi.PriceLookup")
+@Label("Price Lookup")
+@Category("Price Selector API")
+@Description("Price lookup through the prices cache")
+public class PriceLookupEvent extends Event {
+
+    @Label("Cache Key")
+    public String key;
+
+    @Label("Cache Outcome")
+    @Description("hit, negative-hit, miss or joined, for a miss that joined a load already in flight")
+    public String outcome;
+}
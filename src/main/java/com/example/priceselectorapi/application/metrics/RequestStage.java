@@ -0,0 +1,41 @@
+package com.example.priceselectorapi.application.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Stages of a price lookup timed under {@code price.request.stage}, one {@code stage} tag value
+ * each. The total of the request is {@code http.server.requests}; the SLO buckets of both meters
+ * are set with {@code management.metrics.distribution.slo.*}.
+ * <p>
+ * A single-key lookup coalesced into a batch query is timed as {@code db-batch} instead of
+ * {@code db}, from joining its batch until the batch answers it, so the wait for the batching
+ * window does not skew the {@code db} histogram.
+ */
+public enum RequestStage {
+
+    CACHE("cache"),
+    DATABASE("db"),
+    DATABASE_BATCH("db-batch"),
+    ROW_MAPPING("row-mapping"),
+    DTO_MAPPING("dto-mapping");
+
+    private static final String METER_NAME = "price.request.stage";
+
+    private final String tagValue;
+
+    RequestStage(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String getTagValue() {
+        return tagValue;
+    }
+
+    public Timer timer(MeterRegistry meterRegistry) {
+        return Timer.builder(METER_NAME)
+                .description("Time spent in one stage of a price lookup")
+                .tag("stage", tagValue)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.priceselectorapi.application.metrics;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Time spent by one request in each {@link RequestStage}, collected for its {@code Server-Timing}
+ * header. It travels in the Reactor {@code Context} of the request, so stages only record into it
+ * when the request asked for timings; without it the recording methods do nothing.
+ * <p>
+ * Stages entered more than once, like row mapping, add up.
+ */
+public final class StageTimings {
+
+    private static final RequestStage[] STAGES = RequestStage.values();
+
+    private final AtomicLongArray nanos = new AtomicLongArray(STAGES.length);
+    private final AtomicLongArray entries = new AtomicLongArray(STAGES.length);
+
+    public void record(RequestStage stage, long elapsedNanos) {
+        nanos.addAndGet(stage.ordinal(), elapsedNanos);
+        entries.incrementAndGet(stage.ordinal());
+    }
+
+    /**
+     * The recorded stages as a {@code Server-Timing} value, in stage order with durations in
+     * milliseconds, followed by {@code total} when {@code totalNanos} is not negative.
+     */
+    public String toServerTiming(long totalNanos) {
+        StringJoiner header = new StringJoiner(", ");
+        for (RequestStage stage : STAGES) {
+            if (entries.get(stage.ordinal()) > 0) {
+                header.add(metric(stage.getTagValue(), nanos.get(stage.ordinal())));
+            }
+        }
+        if (totalNanos >= 0) {
+            header.add(metric("total", totalNanos));
+        }
+        return header.toString();
+    }
+
+    public static StageTimings from(ContextView context) {
+        return context.getOrDefault(StageTimings.class, null);
+    }
+
+    /**
+     * Calls the supplier and records how long the call itself took as the given stage, for
+     * stages done while the returned Mono is assembled, like a cache lookup.
+     */
+    public static <T> Mono<T> timedCall(RequestStage stage, Supplier<Mono<T>> call) {
+        return Mono.deferContextual(context -> {
+            StageTimings timings = from(context);
+            if (timings == null) {
+                return call.get();
+            }
+            long startedAt = System.nanoTime();
+            Mono<T> result = call.get();
+            timings.record(stage, System.nanoTime() - startedAt);
+            return result;
+        });
+    }
+
+    private static String metric(String name, long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.3f", name, nanos / 1_000_000.0);
+    }
+}
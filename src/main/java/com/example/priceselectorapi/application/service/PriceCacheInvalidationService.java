@@ -0,0 +1,54 @@
+package com.example.priceselectorapi.application.service;
+
+import com.example.priceselectorapi.application.cache.CacheStrategy;
+import com.example.priceselectorapi.domain.model.port.PriceCatalogRefreshPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceCacheInvalidationService {
+
+    private final CacheStrategy<Object> cacheStrategy;
+    private final ObjectProvider<PriceCatalogRefreshPort> catalogRefreshPort;
+
+    /**
+     * Invalidates everything cached for one product. When the repository keeps its own copy
+     * of the catalog, that copy is refreshed first so evicted keys cannot be reloaded from
+     * stale data.
+     *
+     * @param brandId The ID of the brand.
+     * @param productId The ID of the product.
+     * @return A Mono with the number of evicted cache keys.
+     */
+    public Mono<Integer> invalidateProduct(Integer brandId, Long productId) {
+        log.info("Invalidating cached prices for productId: {}, brandId: {}", productId, brandId);
+
+        return refresh(port -> port.refreshProduct(brandId, productId))
+                .then(Mono.fromCallable(() -> cacheStrategy.evictProduct(brandId, productId)));
+    }
+
+    /**
+     * Invalidates everything cached for every product of a brand.
+     *
+     * @param brandId The ID of the brand.
+     * @return A Mono with the number of evicted cache keys.
+     */
+    public Mono<Integer> invalidateBrand(Integer brandId) {
+        log.info("Invalidating cached prices for brandId: {}", brandId);
+
+        return refresh(port -> port.refreshBrand(brandId))
+                .then(Mono.fromCallable(() -> cacheStrategy.evictBrand(brandId)));
+    }
+
+    private Mono<Void> refresh(Function<PriceCatalogRefreshPort, Mono<Void>> refresh) {
+        PriceCatalogRefreshPort port = catalogRefreshPort.getIfAvailable();
+        return port == null ? Mono.empty() : refresh.apply(port);
+    }
+}
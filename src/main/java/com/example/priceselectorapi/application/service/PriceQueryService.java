@@ -2,16 +2,29 @@ package com.example.priceselectorapi.application.service;
 
 import com.example.priceselectorapi.application.cache.CacheKeyGenerator;
 import com.example.priceselectorapi.application.cache.CacheStrategy;
+import com.example.priceselectorapi.application.metrics.RequestStage;
+import com.example.priceselectorapi.application.metrics.StageTimings;
 import com.example.priceselectorapi.domain.model.Price;
 import com.example.priceselectorapi.domain.model.port.PriceQueryPort;
 import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.timeline.PriceSegment;
+import com.example.priceselectorapi.domain.model.timeline.PriceTimeline;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -43,17 +56,140 @@ public class PriceQueryService implements PriceQueryPort {
 
         String cacheKey = cacheKeyGenerator.generateKey(applicationDate, productId, brandId);
         
-        return cacheStrategy.get(cacheKey, () -> 
+        return StageTimings.timedCall(RequestStage.CACHE, () -> cacheStrategy.get(cacheKey, () -> 
             priceRepositoryPort.findApplicablePrices(applicationDate, productId, brandId)
                 .doOnNext(price -> log.debug("Found applicable price with priority: {} and amount: {}", 
                     price.getPriority(), price.getPriceAmount()))
                 .next()
                 .cast(Object.class)
-        ).cast(Price.class)
+        )).cast(Price.class)
         .doOnSuccess(price -> {
             if (price == null) {
                 log.debug("No applicable price found");
             }
         });
     }
-} 
\ No newline at end of file
+
+    /**
+     * Returns the last price loaded for the lookup, even if it has expired from the cache, as a
+     * fallback for when the repository cannot answer. Empty when no such price is kept.
+     */
+    public Mono<Price> findLastKnownPrice(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        String cacheKey = cacheKeyGenerator.generateKey(applicationDate, productId, brandId);
+        return cacheStrategy.getStale(cacheKey)
+                .cast(Price.class)
+                .doOnNext(price -> log.debug("Using last known price for productId: {}, brandId: {}, date: {}",
+                        productId, brandId, applicationDate));
+    }
+
+    /**
+     * Returns the applicable price only when the cache already holds it, without loading it on a
+     * miss; lets a caller with a validator for the price skip the lookup.
+     */
+    public Mono<Price> findCachedPrice(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        String cacheKey = cacheKeyGenerator.generateKey(applicationDate, productId, brandId);
+        return cacheStrategy.getIfPresent(cacheKey).cast(Price.class);
+    }
+
+    /**
+     * Returns the last instant the price applicable at the given date keeps applying, from the
+     * repository's in-memory timeline; empty when the repository cannot tell without a query.
+     */
+    public Optional<LocalDateTime> findSegmentEnd(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        return priceRepositoryPort.findSegmentEnd(applicationDate, productId, brandId);
+    }
+
+    /**
+     * Finds the applicable price of every lookup key. Keys already cached are answered from
+     * the cache and all remaining keys are resolved together with a single repository call.
+     *
+     * @param keys The (application date, product, brand) tuples to resolve.
+     * @return A Mono with the winning Price of each key that has one; keys without a price are absent.
+     */
+    @Override
+    public Mono<Map<PriceLookupKey, Price>> findApplicablePrices(List<PriceLookupKey> keys) {
+        log.debug("Searching for applicable prices for {} lookup keys", keys.size());
+
+        Map<String, PriceLookupKey> keysByCacheKey = new LinkedHashMap<>();
+        for (PriceLookupKey key : keys) {
+            keysByCacheKey.putIfAbsent(
+                    cacheKeyGenerator.generateKey(key.getApplicationDate(), key.getProductId(), key.getBrandId()), key);
+        }
+
+        return StageTimings.timedCall(RequestStage.CACHE, () -> cacheStrategy.getAll(keysByCacheKey.keySet(), missingCacheKeys -> {
+                    List<PriceLookupKey> missingKeys = missingCacheKeys.stream()
+                            .map(keysByCacheKey::get)
+                            .toList();
+                    return priceRepositoryPort.findApplicablePrices(missingKeys)
+                            .collectList()
+                            .map(candidates -> resolveWinners(missingCacheKeys, keysByCacheKey, candidates));
+                }))
+                .map(pricesByCacheKey -> {
+                    Map<PriceLookupKey, Price> pricesByKey = new HashMap<>();
+                    pricesByCacheKey.forEach((cacheKey, price) ->
+                            pricesByKey.put(keysByCacheKey.get(cacheKey), (Price) price));
+                    log.debug("Resolved {} of {} lookup keys", pricesByKey.size(), keysByCacheKey.size());
+                    return pricesByKey;
+                });
+    }
+
+    /**
+     * Streams the winning price of every product of a brand at the given date, bypassing the cache.
+     * Rows arrive grouped by product with the winner first, so only the first row of each group
+     * is kept and the catalog is never held in memory.
+     *
+     * @param applicationDate The date and time for which the prices are requested.
+     * @param brandId The ID of the brand.
+     * @return A Flux with one applicable Price per product, in ascending product id order.
+     */
+    @Override
+    public Flux<Price> streamApplicablePrices(LocalDateTime applicationDate, Integer brandId) {
+        log.debug("Streaming applicable prices for brandId: {}, date: {}", brandId, applicationDate);
+
+        return priceRepositoryPort.findApplicablePricesByBrand(applicationDate, brandId)
+                .distinctUntilChanged(Price::getProductId);
+    }
+
+    /**
+     * Resolves the applicable price over a window as a piecewise function: consecutive segments,
+     * each with the price that wins throughout it, clipped to the window. Every price involved is
+     * read with one repository call; periods without any price are left as gaps.
+     *
+     * @param from The start of the window, inclusive.
+     * @param to The end of the window, inclusive.
+     * @param productId The ID of the product.
+     * @param brandId The ID of the brand.
+     * @return A Mono with the segments in chronological order; the list is empty when no price applies in the window.
+     */
+    @Override
+    public Mono<List<PriceSegment>> findPriceTimeline(LocalDateTime from, LocalDateTime to,
+                                                      Long productId, Integer brandId) {
+        if (from.isAfter(to)) {
+            return Mono.error(new IllegalArgumentException("Timeline start cannot be after its end"));
+        }
+
+        log.debug("Building price timeline for productId: {}, brandId: {}, from: {}, to: {}",
+                productId, brandId, from, to);
+
+        return priceRepositoryPort.findPricesInRange(from, to, productId, brandId)
+                .collectList()
+                .map(prices -> PriceTimeline.of(prices).segmentsBetween(from, to));
+    }
+
+    private Map<String, Object> resolveWinners(Collection<String> cacheKeys,
+                                               Map<String, PriceLookupKey> keysByCacheKey,
+                                               List<Price> candidates) {
+        Map<Long, List<Price>> candidatesByProduct = candidates.stream()
+                .collect(Collectors.groupingBy(Price::getProductId));
+
+        Map<String, Object> winners = new HashMap<>();
+        for (String cacheKey : cacheKeys) {
+            PriceLookupKey key = keysByCacheKey.get(cacheKey);
+            candidatesByProduct.getOrDefault(key.getProductId(), List.of()).stream()
+                    .filter(price -> price.isApplicableFor(key.getApplicationDate(), key.getProductId(), key.getBrandId()))
+                    .reduce((winner, price) -> price.outranks(winner) ? price : winner)
+                    .ifPresent(winner -> winners.put(cacheKey, winner));
+        }
+        return winners;
+    }
+}
@@ -51,6 +51,24 @@ public class Price {
         return this.priority.compareTo(other.priority) > 0;
     }
     
+    /**
+     * Priority rule with a deterministic tie-break: on equal priority the most recently
+     * started price wins, and then the one with the highest id.
+     */
+    public boolean outranks(Price other) {
+        if (hasHigherPriorityThan(other)) {
+            return true;
+        }
+        if (other.hasHigherPriorityThan(this)) {
+            return false;
+        }
+        int byStartDate = this.startDate.compareTo(other.startDate);
+        if (byStartDate != 0) {
+            return byStartDate > 0;
+        }
+        return this.id != null && (other.id == null || this.id.compareTo(other.id) > 0);
+    }
+    
     public boolean isActiveAt(LocalDateTime applicationDate) {
         return validityPeriod != null ? validityPeriod.isActive(applicationDate) : 
                isWithinDateRange(applicationDate);
@@ -41,6 +41,18 @@ public class PriceFactory {
                 .build();
     }
     
+    /**
+     * Creates a price from the text of a PRICES row: ISO-8601 local date-times and a decimal amount.
+     */
+    public static Price createPrice(Long id, Integer brandId, Integer priceList,
+                                  Long productId, Integer priority,
+                                  String startDate, String endDate,
+                                  String amount, String currencyCode) {
+        return createPrice(id, brandId, priceList, productId, priority,
+                LocalDateTime.parse(startDate), LocalDateTime.parse(endDate),
+                new BigDecimal(amount), currencyCode);
+    }
+
     public static Price createPriceWithValueObjects(Long id, Integer brandId, Integer priceList, 
                                                   Long productId, Integer priority, 
                                                   DateRange dateRange, Money money) {
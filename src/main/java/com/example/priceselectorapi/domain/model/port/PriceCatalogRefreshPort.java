@@ -0,0 +1,10 @@
+package com.example.priceselectorapi.domain.model.port;
+
+import reactor.core.publisher.Mono;
+
+public interface PriceCatalogRefreshPort {
+    
+    Mono<Void> refreshProduct(Integer brandId, Long productId);
+    
+    Mono<Void> refreshBrand(Integer brandId);
+}
@@ -1,11 +1,22 @@
 package com.example.priceselectorapi.domain.model.port;
 
 import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.timeline.PriceSegment;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 public interface PriceQueryPort {
     
     Mono<Price> findApplicablePrice(LocalDateTime applicationDate, Long productId, Integer brandId);
-} 
\ No newline at end of file
+    
+    Mono<Map<PriceLookupKey, Price>> findApplicablePrices(List<PriceLookupKey> keys);
+    
+    Flux<Price> streamApplicablePrices(LocalDateTime applicationDate, Integer brandId);
+    
+    Mono<List<PriceSegment>> findPriceTimeline(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId);
+}
@@ -1,11 +1,40 @@
 package com.example.priceselectorapi.domain.model.port;
 
 import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
 import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
 
 public interface PriceRepositoryPort {
     
     Flux<Price> findApplicablePrices(LocalDateTime applicationDate, Long productId, Integer brandId);
-} 
\ No newline at end of file
+    
+    /**
+     * Returns the prices applicable to any of the given keys in a single round trip.
+     * Rows are not grouped or resolved per key; callers pick the winner of each key.
+     */
+    Flux<Price> findApplicablePrices(Collection<PriceLookupKey> keys);
+    
+    /**
+     * Streams the prices of every product of a brand valid at the given date, grouped by
+     * product in ascending product id order, each group starting with its winning price.
+     */
+    Flux<Price> findApplicablePricesByBrand(LocalDateTime applicationDate, Integer brandId);
+    
+    /**
+     * Returns every price of a product valid at some instant between {@code from} and {@code to}, inclusive.
+     */
+    Flux<Price> findPricesInRange(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId);
+    
+    /**
+     * Returns the last instant the price winning at {@code applicationDate} keeps winning, i.e. the
+     * end of its timeline segment, when the repository holds the timeline in memory. Never runs a
+     * query; empty when the repository cannot tell without one or no price applies.
+     */
+    default Optional<LocalDateTime> findSegmentEnd(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        return Optional.empty();
+    }
+}
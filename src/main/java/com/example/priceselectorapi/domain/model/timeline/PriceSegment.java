@@ -0,0 +1,29 @@
+package com.example.priceselectorapi.domain.model.timeline;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.valueobject.DateRange;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A maximal period of time during which the same price wins the priority rule.
+ * The validity period is inclusive on both ends, like every other {@link DateRange}.
+ */
+@Value
+public class PriceSegment {
+    DateRange validityPeriod;
+    Price price;
+
+    public static PriceSegment of(DateRange validityPeriod, Price price) {
+        return new PriceSegment(validityPeriod, price);
+    }
+
+    public LocalDateTime getStartDate() {
+        return validityPeriod.getStartDate();
+    }
+
+    public LocalDateTime getEndDate() {
+        return validityPeriod.getEndDate();
+    }
+}
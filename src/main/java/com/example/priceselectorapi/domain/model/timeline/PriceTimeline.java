@@ -0,0 +1,150 @@
+package com.example.priceselectorapi.domain.model.timeline;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.valueobject.DateRange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Flattened view of the overlapping prices of a single (brand, product): a sorted list of
+ * disjoint {@link PriceSegment}s, each already resolved to the price that wins the priority
+ * rule. Resolving a date is a binary search over segment start dates with no comparison
+ * of priorities at lookup time.
+ */
+public final class PriceTimeline {
+
+    private static final PriceTimeline EMPTY = new PriceTimeline(new PriceSegment[0]);
+    private static final Comparator<Price> PRIORITY_RULE =
+            (first, second) -> first.outranks(second) ? -1 : second.outranks(first) ? 1 : 0;
+
+    private final PriceSegment[] segments;
+    private final LocalDateTime[] startDates;
+
+    private PriceTimeline(PriceSegment[] segments) {
+        this.segments = segments;
+        this.startDates = Arrays.stream(segments)
+                .map(PriceSegment::getStartDate)
+                .toArray(LocalDateTime[]::new);
+    }
+
+    public static PriceTimeline empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Splits the time axis at every start date and at the instant right after every end date,
+     * resolves the winner of each elementary range and merges neighbours won by the same price.
+     * Periods not covered by any price produce no segment. A price ending at
+     * {@link LocalDateTime#MAX} has no instant after its end and stays open to the end of the axis.
+     * <p>
+     * The boundaries are swept once in order, keeping the prices that have started in a heap
+     * ordered by the priority rule; prices that have ended are dropped when they reach its top.
+     */
+    public static PriceTimeline of(Collection<Price> prices) {
+        if (prices.isEmpty()) {
+            return EMPTY;
+        }
+
+        TreeSet<LocalDateTime> boundaries = new TreeSet<>();
+        for (Price price : prices) {
+            boundaries.add(price.getStartDate());
+            if (!LocalDateTime.MAX.equals(price.getEndDate())) {
+                boundaries.add(price.getEndDate().plusNanos(1));
+            }
+        }
+
+        Price[] byStartDate = prices.toArray(Price[]::new);
+        Arrays.sort(byStartDate, Comparator.comparing(Price::getStartDate));
+        PriorityQueue<Price> started = new PriorityQueue<>(PRIORITY_RULE);
+        int nextToStart = 0;
+
+        List<PriceSegment> segments = new ArrayList<>();
+        Price previousWinner = null;
+        Iterator<LocalDateTime> sweep = boundaries.iterator();
+        LocalDateTime from = sweep.next();
+        while (from != null) {
+            LocalDateTime next = sweep.hasNext() ? sweep.next() : null;
+            while (nextToStart < byStartDate.length && !byStartDate[nextToStart].getStartDate().isAfter(from)) {
+                started.add(byStartDate[nextToStart++]);
+            }
+            while (!started.isEmpty() && started.peek().getEndDate().isBefore(from)) {
+                started.poll();
+            }
+
+            Price winner = started.peek();
+            if (winner != null) {
+                LocalDateTime to = next != null ? next.minusNanos(1) : LocalDateTime.MAX;
+                if (winner == previousWinner) {
+                    PriceSegment last = segments.get(segments.size() - 1);
+                    segments.set(segments.size() - 1, PriceSegment.of(DateRange.of(last.getStartDate(), to), winner));
+                } else {
+                    segments.add(PriceSegment.of(DateRange.of(from, to), winner));
+                }
+            }
+            previousWinner = winner;
+            from = next;
+        }
+
+        return new PriceTimeline(segments.toArray(PriceSegment[]::new));
+    }
+
+    public Optional<Price> findWinner(LocalDateTime applicationDate) {
+        int index = lastStartedAt(applicationDate);
+        if (index < 0 || !segments[index].getValidityPeriod().contains(applicationDate)) {
+            return Optional.empty();
+        }
+        return Optional.of(segments[index].getPrice());
+    }
+
+    /**
+     * Returns the segments overlapping the window, with the first and last one clipped to its bounds.
+     */
+    public List<PriceSegment> segmentsBetween(LocalDateTime from, LocalDateTime to) {
+        List<PriceSegment> clipped = new ArrayList<>();
+        for (int i = Math.max(lastStartedAt(from), 0); i < segments.length; i++) {
+            PriceSegment segment = segments[i];
+            if (segment.getStartDate().isAfter(to)) {
+                break;
+            }
+            if (segment.getEndDate().isBefore(from)) {
+                continue;
+            }
+            boolean inside = !segment.getStartDate().isBefore(from) && !segment.getEndDate().isAfter(to);
+            clipped.add(inside ? segment : PriceSegment.of(DateRange.of(
+                    segment.getStartDate().isBefore(from) ? from : segment.getStartDate(),
+                    segment.getEndDate().isAfter(to) ? to : segment.getEndDate()), segment.getPrice()));
+        }
+        return clipped;
+    }
+
+    public List<PriceSegment> getSegments() {
+        return List.of(segments);
+    }
+
+    public boolean isEmpty() {
+        return segments.length == 0;
+    }
+
+    private int lastStartedAt(LocalDateTime applicationDate) {
+        int low = 0;
+        int high = startDates.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startDates[mid].isAfter(applicationDate)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low - 1;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.priceselectorapi.domain.model.valueobject;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value(staticConstructor = "of")
+public class PriceLookupKey {
+    LocalDateTime applicationDate;
+    Long productId;
+    Integer brandId;
+}
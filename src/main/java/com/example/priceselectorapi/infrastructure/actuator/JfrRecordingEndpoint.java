@@ -0,0 +1,166 @@
+package com.example.priceselectorapi.infrastructure.actuator;
+
+import com.example.priceselectorapi.application.metrics.CacheEvictionEvent;
+import com.example.priceselectorapi.application.metrics.PriceDbQueryEvent;
+import com.example.priceselectorapi.application.metrics.PriceLookupEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code jfr} actuator endpoint driving one Java Flight Recorder recording of the running
+ * instance, with the {@code app.jfr.settings} configuration plus the events of this service
+ * ({@link PriceLookupEvent}, {@link PriceDbQueryEvent} and {@link CacheEvictionEvent}) enabled
+ * without threshold:
+ * <ul>
+ *   <li>{@code GET /actuator/jfr}: state of the recording.</li>
+ *   <li>{@code POST /actuator/jfr/start}: starts a new recording, stopping by itself after the
+ *       optional {@code duration} of the JSON request body, e.g. {@code {"duration": "PT5M"}}.</li>
+ *   <li>{@code POST /actuator/jfr/stop}: stops it, keeping its data for a dump. Like every actuator
+ *       write operation it expects a JSON content type.</li>
+ *   <li>{@code GET /actuator/jfr/dump}: the data recorded so far as a {@code .jfr} file, written
+ *       to {@code app.jfr.dump-file} first.</li>
+ * </ul>
+ * The recording keeps at most {@code app.jfr.max-age} and {@code app.jfr.max-size} of data.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+    static final String RECORDING_NAME = "price-selector";
+    static final String DUMP = "dump";
+
+    private static final List<Class<? extends Event>> PRICE_EVENTS =
+            List.of(PriceLookupEvent.class, PriceDbQueryEvent.class, CacheEvictionEvent.class);
+
+    @Value("${app.jfr.settings:default}")
+    private String settings = "default";
+
+    @Value("${app.jfr.max-age:PT10M}")
+    private Duration maxAge = Duration.ofMinutes(10);
+
+    @Value("${app.jfr.max-size:100MB}")
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    @Value("${app.jfr.dump-file:${java.io.tmpdir}/price-selector/recording.jfr}")
+    private Path dumpFile;
+
+    private Recording recording;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("name", recording.getName());
+        status.put("state", recording.getState());
+        status.put("settings", settings);
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("maxSize", recording.getMaxSize());
+        status.put("size", recording.getSize());
+        status.put("events", PRICE_EVENTS.stream().map(event -> EventType.getEventType(event).getName()).toList());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> control(@Selector Action action, @Nullable Duration duration) {
+        switch (action) {
+            case START -> start(duration);
+            case STOP -> stop();
+        }
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String file) throws IOException {
+        if (!DUMP.equals(file) || recording == null || recording.getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Files.createDirectories(dumpFile.toAbsolutePath().getParent());
+        recording.dump(dumpFile);
+        log.info("Dumped flight recording to {}", dumpFile);
+        return new WebEndpointResponse<>(new FileSystemResource(dumpFile), WebEndpointResponse.STATUS_OK);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * A running recording is left as it is; a stopped one is discarded for the new one.
+     */
+    private void start(Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            log.info("Flight recording already running since {}", recording.getStartTime());
+            return;
+        }
+        close();
+
+        Recording newRecording = new Recording(configuration());
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setMaxSize(maxSize.toBytes());
+        if (duration != null) {
+            newRecording.setDuration(duration);
+        }
+        PRICE_EVENTS.forEach(event -> newRecording.enable(event).withoutThreshold());
+        newRecording.start();
+        recording = newRecording;
+        log.info("Started flight recording with settings: {}, duration: {}", settings, duration);
+    }
+
+    private void stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped flight recording after {} bytes", recording.getSize());
+        }
+    }
+
+    private Configuration configuration() {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to load JFR settings: " + settings, e);
+        }
+    }
+
+    public enum Action {
+        START,
+        STOP
+    }
+}
@@ -1,13 +1,21 @@
 package com.example.priceselectorapi.infrastructure.config;
 
+import com.example.priceselectorapi.application.cache.CacheKeyGenerator;
+import com.example.priceselectorapi.application.cache.CacheKeyIndex;
+import com.example.priceselectorapi.application.cache.LookupDateExpiry;
+import com.example.priceselectorapi.application.cache.PriceCacheRefresher;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
 import java.time.Duration;
 
 @Configuration
@@ -17,21 +25,128 @@ public class CacheConfig {
     @Value("${app.cache.prices.ttl:PT5M}")
     private Duration pricesCacheTtl;
 
+    @Value("${app.cache.prices.expiry:lookup-date}")
+    private ExpiryMode pricesCacheExpiry = ExpiryMode.LOOKUP_DATE;
+
+    @Value("${app.cache.prices.settled-ttl:PT1H}")
+    private Duration pricesCacheSettledTtl;
+
+    @Value("${app.cache.prices.refresh-ahead.enabled:true}")
+    private boolean refreshAheadEnabled;
+
+    @Value("${app.cache.prices.refresh-ahead.after:PT4M}")
+    private Duration refreshAheadAfter;
+
     @Value("${app.cache.prices.max-size:1000}")
     private long pricesCacheMaxSize;
 
+    @Value("${app.cache.prices.negative.enabled:true}")
+    private boolean negativeCacheEnabled;
+
+    @Value("${app.cache.prices.negative.ttl:PT30S}")
+    private Duration negativeCacheTtl;
+
+    @Value("${app.cache.prices.negative.max-size:10000}")
+    private long negativeCacheMaxSize;
+
+    @Value("${app.cache.prices.stale.enabled:true}")
+    private boolean staleCacheEnabled;
+
+    @Value("${app.cache.prices.stale.ttl:PT24H}")
+    private Duration staleCacheTtl;
+
+    @Value("${app.cache.prices.stale.max-size:10000}")
+    private long staleCacheMaxSize;
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(caffeineCacheBuilder());
+    public CacheManager cacheManager(CacheKeyIndex cacheKeyIndex, CacheKeyGenerator cacheKeyGenerator,
+                                     PriceCacheRefresher priceCacheRefresher, PriceRepositoryPort priceRepositoryPort,
+                                     Clock clock) {
+        CaffeineCacheManager cacheManager = new RefreshAheadCacheManager();
+        cacheManager.setCaffeine(caffeineCacheBuilder(cacheKeyIndex, cacheKeyGenerator, priceRepositoryPort, clock));
+        if (refreshAheadEnabled) {
+            cacheManager.setCacheLoader(priceCacheRefresher);
+        }
         cacheManager.setCacheNames(java.util.Set.of("prices"));
+        if (negativeCacheEnabled) {
+            cacheManager.registerCustomCache("prices-negative", negativeCacheBuilder(cacheKeyIndex).build());
+        }
+        if (staleCacheEnabled) {
+            cacheManager.registerCustomCache("prices-stale", staleCacheBuilder(cacheKeyIndex).build());
+        }
         return cacheManager;
     }
 
-    private Caffeine<Object, Object> caffeineCacheBuilder() {
-        return Caffeine.newBuilder()
+    /**
+     * With {@code app.cache.prices.expiry=lookup-date} lookups of a past moment are kept for
+     * {@code app.cache.prices.settled-ttl} and the others until their price stops winning, at most
+     * as long; with {@code fixed} every entry lives for {@code app.cache.prices.ttl}.
+     * <p>
+     * With {@code app.cache.prices.refresh-ahead.enabled} an entry older than
+     * {@code app.cache.prices.refresh-ahead.after} is still served while {@link PriceCacheRefresher}
+     * reloads it in the background, so hot keys are refreshed before they expire. Settled lookups
+     * are not reloaded.
+     */
+    private Caffeine<Object, Object> caffeineCacheBuilder(CacheKeyIndex cacheKeyIndex, CacheKeyGenerator cacheKeyGenerator,
+                                                          PriceRepositoryPort priceRepositoryPort, Clock clock) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
                 .maximumSize(pricesCacheMaxSize)
-                .expireAfterWrite(pricesCacheTtl)
+                .evictionListener((key, value, cause) -> cacheKeyIndex.unregister("prices", String.valueOf(key)))
+                .recordStats();
+        if (refreshAheadEnabled) {
+            builder.refreshAfterWrite(refreshAheadAfter);
+        }
+        if (pricesCacheExpiry == ExpiryMode.LOOKUP_DATE) {
+            return builder.expireAfter(new LookupDateExpiry(cacheKeyGenerator, priceRepositoryPort,
+                    pricesCacheTtl, pricesCacheSettledTtl, clock));
+        }
+        return builder.expireAfterWrite(pricesCacheTtl);
+    }
+
+    /**
+     * Bounded separately from the prices cache, with a shorter TTL, so lookups that found
+     * no applicable price cannot crowd out real prices and new prices show up quickly.
+     */
+    private Caffeine<Object, Object> negativeCacheBuilder(CacheKeyIndex cacheKeyIndex) {
+        return Caffeine.newBuilder()
+                .maximumSize(negativeCacheMaxSize)
+                .expireAfterWrite(negativeCacheTtl)
+                .evictionListener((key, value, cause) -> cacheKeyIndex.unregister("prices-negative", String.valueOf(key)))
+                .recordStats();
+    }
+
+    /**
+     * Last loaded value of each key, kept well past the prices cache TTL so a lookup can still be
+     * answered, marked stale, while the database is unavailable.
+     */
+    private Caffeine<Object, Object> staleCacheBuilder(CacheKeyIndex cacheKeyIndex) {
+        return Caffeine.newBuilder()
+                .maximumSize(staleCacheMaxSize)
+                .expireAfterWrite(staleCacheTtl)
+                .evictionListener((key, value, cause) -> cacheKeyIndex.unregister("prices-stale", String.valueOf(key)))
                 .recordStats();
     }
+
+    /**
+     * Reads entries with {@code getIfPresent} even when refresh-ahead makes the native cache a
+     * {@code LoadingCache}, so a miss never calls {@link PriceCacheRefresher#load}: misses are
+     * loaded by the reactive cache service and the loader only serves background reloads.
+     */
+    static class RefreshAheadCacheManager extends CaffeineCacheManager {
+
+        @Override
+        protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+            return new CaffeineCache(name, cache, isAllowNullValues()) {
+                @Override
+                protected Object lookup(Object key) {
+                    return getNativeCache().getIfPresent(key);
+                }
+            };
+        }
+    }
+
+    public enum ExpiryMode {
+        FIXED,
+        LOOKUP_DATE
+    }
 } 
\ No newline at end of file
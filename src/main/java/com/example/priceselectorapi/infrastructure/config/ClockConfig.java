@@ -0,0 +1,24 @@
+package com.example.priceselectorapi.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Catalog timestamps and application dates carry no zone: they are local times of
+ * {@code app.catalog.time-zone}, so "now" is read in that zone wherever it is compared with them.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Value("${app.catalog.time-zone:UTC}")
+    private ZoneId catalogTimeZone;
+
+    @Bean
+    public Clock clock() {
+        return Clock.system(catalogTimeZone);
+    }
+}
@@ -19,6 +19,30 @@ public class QueryConfig {
     @Value("${app.queries.price-queries-file:queries/price-queries.sql}")
     private String priceQueriesFile;
 
+    @Value("${app.queries.priority-price-query-file:queries/priority-price-query.sql}")
+    private String priorityPriceQueryFile;
+
+    @Value("${app.queries.date-range-query-file:queries/date-range-query.sql}")
+    private String dateRangeQueryFile;
+
+    @Value("${app.queries.batch-price-queries-file:queries/batch-price-queries.sql}")
+    private String batchPriceQueriesFile;
+
+    @Value("${app.queries.brand-snapshot-file:queries/brand-snapshot.sql}")
+    private String brandSnapshotFile;
+
+    @Value("${app.queries.price-catalog-file:queries/price-catalog.sql}")
+    private String priceCatalogFile;
+
+    @Value("${app.queries.product-prices-file:queries/product-prices.sql}")
+    private String productPricesFile;
+
+    @Value("${app.queries.brand-prices-file:queries/brand-prices.sql}")
+    private String brandPricesFile;
+
+    @Value("${app.queries.catalog-fingerprint-file:queries/catalog-fingerprint.sql}")
+    private String catalogFingerprintFile;
+
     @Bean
     public Map<String, String> sqlQueries() {
         Map<String, String> queries = new HashMap<>();
@@ -26,9 +50,25 @@ public class QueryConfig {
         try {
             String priceQueries = loadQueryFromFile(priceQueriesFile);
             queries.put("findApplicablePrices", priceQueries);
+            queries.put("findTopPriorityPrice", loadQueryFromFile(priorityPriceQueryFile));
+            queries.put("findPricesInRange", loadQueryFromFile(dateRangeQueryFile));
+            queries.put("findApplicablePricesBatch", loadQueryFromFile(batchPriceQueriesFile));
+            queries.put("findBrandSnapshot", loadQueryFromFile(brandSnapshotFile));
+            queries.put("findAllPrices", loadQueryFromFile(priceCatalogFile));
+            queries.put("findProductPrices", loadQueryFromFile(productPricesFile));
+            queries.put("findBrandPrices", loadQueryFromFile(brandPricesFile));
+            queries.put("findCatalogFingerprint", loadQueryFromFile(catalogFingerprintFile));
             
             log.info("Loaded {} SQL queries from external files", queries.size());
             log.debug("Price queries loaded from: {}", priceQueriesFile);
+            log.debug("Priority price query loaded from: {}", priorityPriceQueryFile);
+            log.debug("Date range query loaded from: {}", dateRangeQueryFile);
+            log.debug("Batch price queries loaded from: {}", batchPriceQueriesFile);
+            log.debug("Brand snapshot query loaded from: {}", brandSnapshotFile);
+            log.debug("Price catalog query loaded from: {}", priceCatalogFile);
+            log.debug("Product prices query loaded from: {}", productPricesFile);
+            log.debug("Brand prices query loaded from: {}", brandPricesFile);
+            log.debug("Catalog fingerprint query loaded from: {}", catalogFingerprintFile);
             
         } catch (IOException e) {
             log.error("Failed to load SQL queries from files", e);
@@ -40,6 +80,7 @@ public class QueryConfig {
     
     private String loadQueryFromFile(String filePath) throws IOException {
         ClassPathResource resource = new ClassPathResource(filePath);
-        return StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+        // r2dbc-h2 treats text after the final ';' as another (empty) statement when binding parameters
+        return StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8).strip();
     }
 } 
\ No newline at end of file
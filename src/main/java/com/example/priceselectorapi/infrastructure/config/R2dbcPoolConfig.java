@@ -0,0 +1,64 @@
+package com.example.priceselectorapi.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Instruments and warms up the connection pool configured under {@code spring.r2dbc.pool.*}.
+ * <p>
+ * Spring Boot publishes the size of the pool and the number of pending acquisitions as the
+ * {@code r2dbc.pool.*} gauges; the time each acquisition of the repositories took is added here
+ * as the {@code r2dbc.pool.acquire} timer. Before the other runners, including the cache warm-up,
+ * the pool opens its {@code initial-size} connections, so the first lookups do not pay for them.
+ */
+@Configuration
+@Slf4j
+public class R2dbcPoolConfig {
+
+    /**
+     * Takes the place of the {@link DatabaseClient} of Spring Boot, acquiring connections through
+     * a {@link TimedConnectionFactory}. The wrapper is not a bean, so the pool stays the connection
+     * factory bean that the context disposes and the pool metrics and health indicator look up.
+     */
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory, MeterRegistry meterRegistry) {
+        return DatabaseClient.builder()
+                .connectionFactory(new TimedConnectionFactory(connectionFactory, "connectionFactory", meterRegistry))
+                .bindMarkers(DialectResolver.getDialect(connectionFactory).getBindMarkersFactory())
+                .build();
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApplicationRunner connectionPoolWarmup(ConnectionFactory connectionFactory) {
+        return args -> {
+            ConnectionPool connectionPool = connectionPool(connectionFactory);
+            if (connectionPool == null) {
+                log.info("Connection factory is not pooled, skipping pool warm-up");
+                return;
+            }
+            Integer warmedUp = connectionPool.warmup().block();
+            log.info("Connection pool warmed up with {} new connections", warmedUp);
+        };
+    }
+
+    private static ConnectionPool connectionPool(Object connectionFactory) {
+        if (connectionFactory instanceof ConnectionPool connectionPool) {
+            return connectionPool;
+        }
+        if (connectionFactory instanceof Wrapped<?> wrapped) {
+            return connectionPool(wrapped.unwrap());
+        }
+        return null;
+    }
+}
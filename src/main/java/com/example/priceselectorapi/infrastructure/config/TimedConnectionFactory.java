@@ -0,0 +1,58 @@
+package com.example.priceselectorapi.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records in {@code r2dbc.pool.acquire} how long each connection took to be handed out by the
+ * wrapped pool, tagged with the pool name and whether the acquisition succeeded. Being
+ * {@link Wrapped}, code holding it can still reach the pool behind it.
+ */
+final class TimedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+    private final Timer successfulAcquisitions;
+    private final Timer failedAcquisitions;
+
+    TimedConnectionFactory(ConnectionFactory delegate, String name, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.successfulAcquisitions = acquireTimer(meterRegistry, name, "success");
+        this.failedAcquisitions = acquireTimer(meterRegistry, name, "failure");
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return Mono.<Connection>from(delegate.create())
+                    .doOnSuccess(connection -> successfulAcquisitions.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> failedAcquisitions.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    private static Timer acquireTimer(MeterRegistry meterRegistry, String name, String result) {
+        return Timer.builder("r2dbc.pool.acquire")
+                .description("Time taken to acquire a connection from the pool")
+                .tag("name", name)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.priceselectorapi.infrastructure.repository;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-key lookups into multi-key lookups: lookups are buffered until
+ * {@code maxBatchSize} of them are waiting or {@code window} has passed since the first one, then
+ * the whole batch is resolved with one call to the batch loader and each lookup receives the
+ * rows applicable to its own key, ordered like the single-key query.
+ * <p>
+ * Queries are sent from a bounded elastic thread, so a driver that runs the query on the
+ * subscribing thread, like H2, does not hold back the batches queued behind it.
+ * <p>
+ * Records the size of every batch in {@code price.lookup.batch.size} and the time each lookup
+ * waited for its batch to be sent in {@code price.lookup.batch.wait}.
+ */
+@Slf4j
+final class PriceLookupCoalescer {
+
+    private static final Comparator<Price> APPLICABLE_ORDER = (first, second) ->
+            first.outranks(second) ? -1 : second.outranks(first) ? 1 : 0;
+
+    private final Function<List<PriceLookupKey>, Flux<Price>> batchLoader;
+    private final int maxBatchSize;
+    private final Duration window;
+    private final Queue<PendingLookup> pendingLookups = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final DistributionSummary batchSizes;
+    private final Timer batchWaits;
+
+    PriceLookupCoalescer(Function<List<PriceLookupKey>, Flux<Price>> batchLoader, int maxBatchSize,
+                         Duration window, MeterRegistry meterRegistry) {
+        this.batchLoader = batchLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        this.batchSizes = DistributionSummary.builder("price.lookup.batch.size")
+                .description("Single-key lookups resolved together by one multi-key query")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchWaits = Timer.builder("price.lookup.batch.wait")
+                .description("Time a lookup waited for its batch to be sent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the lookup on subscription and emits the prices applicable to the key once its batch
+     * has been resolved, highest priority first. A lookup cancelled before its batch is sent
+     * leaves the queue and is not queried.
+     */
+    Flux<Price> findApplicablePrices(PriceLookupKey key) {
+        return Mono.defer(() -> {
+                    PendingLookup lookup = new PendingLookup(key, System.nanoTime());
+                    enqueue(lookup);
+                    return lookup.result.asMono()
+                            .doOnCancel(() -> cancel(lookup));
+                })
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Sends the lookups still waiting without waiting for their window.
+     */
+    void flush() {
+        List<PendingLookup> batch;
+        while (!(batch = drainBatch()).isEmpty()) {
+            resolve(batch).subscribe();
+        }
+    }
+
+    /**
+     * A lookup is queued before the flag is checked and the timer clears the flag before draining,
+     * so every lookup is either drained by a pending timer or schedules a new one.
+     */
+    private void enqueue(PendingLookup lookup) {
+        pendingLookups.add(lookup);
+        if (pendingCount.incrementAndGet() == maxBatchSize) {
+            Schedulers.parallel().schedule(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            Schedulers.parallel().schedule(() -> {
+                flushScheduled.set(false);
+                flush();
+            }, window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * A lookup cancelled while it is being drained is marked before it is removed, so it is
+     * skipped here when the removal loses the race.
+     */
+    private void cancel(PendingLookup lookup) {
+        lookup.cancelled = true;
+        if (pendingLookups.remove(lookup)) {
+            pendingCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Skips cancelled lookups without counting them against the batch, so the batch is only
+     * empty once the queue is.
+     */
+    private List<PendingLookup> drainBatch() {
+        List<PendingLookup> batch = new ArrayList<>(maxBatchSize);
+        int drained = 0;
+        PendingLookup lookup;
+        while (batch.size() < maxBatchSize && (lookup = pendingLookups.poll()) != null) {
+            drained++;
+            if (!lookup.cancelled) {
+                batch.add(lookup);
+            }
+        }
+        pendingCount.addAndGet(-drained);
+        return batch;
+    }
+
+    private Mono<Void> resolve(List<PendingLookup> batch) {
+        long sentAt = System.nanoTime();
+        batchSizes.record(batch.size());
+        for (PendingLookup lookup : batch) {
+            batchWaits.record(sentAt - lookup.queuedAt, TimeUnit.NANOSECONDS);
+        }
+        log.debug("Resolving {} coalesced lookups with one query", batch.size());
+
+        List<PriceLookupKey> keys = batch.stream().map(lookup -> lookup.key).toList();
+        return Mono.defer(() -> batchLoader.apply(keys).collectList())
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(candidates -> batch.forEach(lookup -> lookup.result.tryEmitValue(applicable(lookup.key, candidates))))
+                .doOnError(error -> batch.forEach(lookup -> lookup.result.tryEmitError(error)))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private static List<Price> applicable(PriceLookupKey key, List<Price> candidates) {
+        List<Price> applicable = new ArrayList<>(2);
+        for (Price candidate : candidates) {
+            if (candidate.isApplicableFor(key.getApplicationDate(), key.getProductId(), key.getBrandId())) {
+                applicable.add(candidate);
+            }
+        }
+        applicable.sort(APPLICABLE_ORDER);
+        return applicable;
+    }
+
+    private static final class PendingLookup {
+
+        private final PriceLookupKey key;
+        private final long queuedAt;
+        private final Sinks.One<List<Price>> result = Sinks.one();
+        private volatile boolean cancelled;
+
+        private PendingLookup(PriceLookupKey key, long queuedAt) {
+            this.key = key;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -1,49 +1,288 @@
 package com.example.priceselectorapi.infrastructure.repository;
 
+import com.example.priceselectorapi.application.metrics.PriceDbQueryEvent;
+import com.example.priceselectorapi.application.metrics.RequestStage;
+import com.example.priceselectorapi.application.metrics.StageTimings;
 import com.example.priceselectorapi.domain.model.Price;
 import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
 import com.example.priceselectorapi.infrastructure.repository.mapper.PriceRowMapper;
+import com.example.priceselectorapi.infrastructure.repository.strategy.DateRangePriceQueryStrategy;
+import com.example.priceselectorapi.infrastructure.repository.strategy.MultiKeyPriceQueryStrategy;
 import com.example.priceselectorapi.infrastructure.repository.strategy.PriceQueryStrategy;
+import com.example.priceselectorapi.infrastructure.repository.strategy.QueryStrategyFactory;
+import com.example.priceselectorapi.infrastructure.repository.strategy.QueryStrategyFactory.QueryType;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * {@link PriceRepositoryPort} over R2DBC. Point lookups go through the {@code priceRepository}
+ * bulkhead, time limiter and circuit breaker configured under {@code resilience4j.*}, so a slow
+ * database rejects lookups quickly instead of piling them up.
+ * <p>
+ * With {@code app.repository.batching.enabled} concurrent single-key lookups are coalesced by a
+ * {@link PriceLookupCoalescer} into multi-key queries of up to {@code app.repository.batching.max-size}
+ * keys, each waiting at most {@code app.repository.batching.window} for its batch. Coalesced lookups
+ * go through the batch query and take the place of the {@code app.repository.query-strategy}
+ * query; each lookup still gets every applicable row, highest priority first.
+ */
 @Repository
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "r2dbc", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class PriceRepositoryImpl implements PriceRepositoryPort {
 
+    private static final String RESILIENCE_INSTANCE = "priceRepository";
+
     private final DatabaseClient databaseClient;
     private final PriceRowMapper priceRowMapper;
-    private final PriceQueryStrategy queryStrategy;
+    private final QueryStrategyFactory queryStrategyFactory;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.repository.query-strategy:applicable-price}")
+    private QueryType lookupQueryType = QueryType.APPLICABLE_PRICE;
+
+    @Value("${app.repository.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${app.repository.batching.window:PT0.0005S}")
+    private Duration batchingWindow = Duration.ofNanos(500_000);
+
+    @Value("${app.repository.batching.max-size:32}")
+    private int batchingMaxSize = 32;
+
+    private PriceQueryStrategy lookupQueryStrategy;
+    private String lookupQuery;
+    private PriceLookupCoalescer lookupCoalescer;
+    private Timer queries;
+    private Timer batchedLookups;
+    private Timer rowMappings;
+
+    /**
+     * Resolves the lookup strategy and its query once, so every lookup sends the same query text
+     * and the database can reuse the statement it parsed for it on each pooled connection.
+     */
+    @PostConstruct
+    public void init() {
+        lookupQueryStrategy = queryStrategyFactory.getStrategy(lookupQueryType);
+        lookupQuery = lookupQueryStrategy.getQuery();
+        log.info("Single-key lookups use strategy: {}", lookupQueryStrategy.getStrategyName());
+        queries = RequestStage.DATABASE.timer(meterRegistry);
+        batchedLookups = RequestStage.DATABASE_BATCH.timer(meterRegistry);
+        rowMappings = RequestStage.ROW_MAPPING.timer(meterRegistry);
+
+        if (batchingEnabled) {
+            lookupCoalescer = new PriceLookupCoalescer(this::findCoalescedPrices,
+                    batchingMaxSize, batchingWindow, meterRegistry);
+            log.info("Coalescing single-key lookups into batches of up to {} keys within {}; they use the batch query "
+                    + "instead of strategy: {}", batchingMaxSize, batchingWindow, lookupQueryStrategy.getStrategyName());
+        }
+    }
+
+    @PreDestroy
+    public void stopBatching() {
+        if (lookupCoalescer != null) {
+            lookupCoalescer.flush();
+        }
+    }
 
     @Override
     public Flux<Price> findApplicablePrices(LocalDateTime applicationDate, Long productId, Integer brandId) {
-        log.debug("Finding applicable prices using strategy: {}", queryStrategy.getStrategyName());
-        
-        String query = queryStrategy.getQuery();
-        Map<String, Object> parameters = queryStrategy.getParameters(applicationDate, productId, brandId);
+        if (lookupCoalescer != null) {
+            return coalesced(PriceLookupKey.of(applicationDate, productId, brandId));
+        }
         
         log.debug("Executing query for productId: {}, brandId: {}, date: {}", 
                  productId, brandId, applicationDate);
         
+        DatabaseClient.GenericExecuteSpec executeSpec = lookupQueryStrategy.bind(
+                databaseClient.sql(lookupQuery), applicationDate, productId, brandId);
+        return guarded(execute(lookupQueryStrategy.getStrategyName(), executeSpec, QueryScope.POINT_LOOKUP))
+                .doOnComplete(() -> log.debug("Completed finding applicable prices"))
+                .doOnError(error -> log.error("Error finding applicable prices", error));
+    }
+
+    @Override
+    public Flux<Price> findApplicablePrices(Collection<PriceLookupKey> keys) {
+        return findApplicablePrices(keys, QueryScope.OTHER);
+    }
+
+    private Flux<Price> findCoalescedPrices(Collection<PriceLookupKey> keys) {
+        return findApplicablePrices(keys, QueryScope.COALESCED_LOOKUPS);
+    }
+
+    private Flux<Price> findApplicablePrices(Collection<PriceLookupKey> keys, QueryScope scope) {
+        if (keys.isEmpty()) {
+            return Flux.empty();
+        }
+        
+        MultiKeyPriceQueryStrategy queryStrategy =
+                queryStrategyFactory.getStrategy(QueryType.BATCH_APPLICABLE_PRICE, MultiKeyPriceQueryStrategy.class);
+        log.debug("Finding applicable prices for {} keys using strategy: {}",
+                 keys.size(), queryStrategy.getStrategyName());
+        
+        List<PriceLookupKey> distinctKeys = keys.stream().distinct().toList();
+        String query = queryStrategy.getQuery(distinctKeys.size());
+        Map<String, Object> parameters = queryStrategy.getParameters(distinctKeys);
+        
+        return guarded(execute(queryStrategy.getStrategyName(), query, parameters, scope))
+                .doOnComplete(() -> log.debug("Completed finding applicable prices for {} keys", distinctKeys.size()))
+                .doOnError(error -> log.error("Error finding applicable prices in batch", error));
+    }
+
+    @Override
+    public Flux<Price> findApplicablePricesByBrand(LocalDateTime applicationDate, Integer brandId) {
+        PriceQueryStrategy queryStrategy = queryStrategyFactory.getStrategy(QueryType.BRAND_SNAPSHOT);
+        log.debug("Streaming applicable prices for brandId: {}, date: {} using strategy: {}",
+                 brandId, applicationDate, queryStrategy.getStrategyName());
+        
+        return execute(queryStrategy.getStrategyName(), queryStrategy.getQuery(), queryStrategy.getParameters(applicationDate, null, brandId), QueryScope.OTHER)
+                .doOnComplete(() -> log.debug("Completed streaming applicable prices for brandId: {}", brandId))
+                .doOnError(error -> log.error("Error streaming applicable prices for brandId: {}", brandId, error));
+    }
+
+    @Override
+    public Flux<Price> findPricesInRange(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId) {
+        DateRangePriceQueryStrategy queryStrategy =
+                queryStrategyFactory.getStrategy(QueryType.DATE_RANGE, DateRangePriceQueryStrategy.class);
+        log.debug("Finding prices between {} and {} for productId: {}, brandId: {} using strategy: {}",
+                 from, to, productId, brandId, queryStrategy.getStrategyName());
+        
+        return execute(queryStrategy.getStrategyName(), queryStrategy.getQuery(), queryStrategy.getParameters(from, to, productId, brandId), QueryScope.OTHER)
+                .doOnError(error -> log.error("Error finding prices in range", error));
+    }
+
+    /**
+     * The bulkhead is innermost so a timed-out lookup releases its permit, and the circuit breaker
+     * outermost so it records timeouts as failures.
+     */
+    private Flux<Price> guarded(Flux<Price> lookup) {
+        return lookup
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE)))
+                .transformDeferred(TimeLimiterOperator.of(timeLimiterRegistry.timeLimiter(RESILIENCE_INSTANCE)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE)));
+    }
+
+    /**
+     * Times a coalesced lookup from joining its batch until the batch answers it, under
+     * {@link RequestStage#DATABASE_BATCH} and in the {@link StageTimings} of its request.
+     */
+    private Flux<Price> coalesced(PriceLookupKey key) {
+        return Flux.deferContextual(context -> {
+            StageTimings timings = StageTimings.from(context);
+            long startedAt = System.nanoTime();
+            return lookupCoalescer.findApplicablePrices(key)
+                    .doFinally(signal -> {
+                        long elapsed = System.nanoTime() - startedAt;
+                        batchedLookups.record(elapsed, TimeUnit.NANOSECONDS);
+                        if (timings != null) {
+                            timings.record(RequestStage.DATABASE_BATCH, elapsed);
+                        }
+                    });
+        });
+    }
+
+    private Flux<Price> execute(String strategyName, String query, Map<String, Object> parameters, QueryScope scope) {
         DatabaseClient.GenericExecuteSpec executeSpec = databaseClient.sql(query);
         
         for (Map.Entry<String, Object> param : parameters.entrySet()) {
             executeSpec = executeSpec.bind(param.getKey(), param.getValue());
         }
         
-        return executeSpec
-                .map(priceRowMapper::mapRowToPrice)
-                .all()
-                .doOnNext(price -> log.debug("Mapped price: {} for product: {}", 
-                    price.getId(), price.getProductId()))
-                .doOnComplete(() -> log.debug("Completed finding applicable prices"))
-                .doOnError(error -> log.error("Error finding applicable prices", error));
+        return execute(strategyName, executeSpec, scope);
+    }
+
+    /**
+     * Times the query from subscription until it completes, fails or is cancelled, which for a
+     * lookup that only needs the winner is when its first row arrives; row mapping is also timed
+     * on its own. Both are added to the {@link StageTimings} of the request when it has one;
+     * coalesced lookups are queried outside of their requests and are not. Only single-key
+     * lookups are recorded in the {@code price.request.stage} timers, so batches, snapshots and
+     * date ranges do not skew their SLO histograms: point lookups record their query and row
+     * mapping, while coalesced lookups record their row mapping here and are each timed as
+     * {@code db-batch} by {@link #coalesced}. The query is also reported as a
+     * {@link PriceDbQueryEvent} while a flight recording is running.
+     */
+    private Flux<Price> execute(String strategyName, DatabaseClient.GenericExecuteSpec executeSpec, QueryScope scope) {
+        return Flux.deferContextual(context -> {
+            StageTimings timings = StageTimings.from(context);
+            PriceDbQueryEvent queryEvent = new PriceDbQueryEvent();
+            queryEvent.begin();
+            long startedAt = System.nanoTime();
+            return executeSpec
+                    .map((row, metadata) -> mapRow(row, metadata, timings, scope))
+                    .all()
+                    .doOnNext(price -> {
+                        queryEvent.rows++;
+                        log.debug("Mapped price: {} for product: {}", price.getId(), price.getProductId());
+                    })
+                    .doFinally(signal -> {
+                        long elapsed = System.nanoTime() - startedAt;
+                        if (scope == QueryScope.POINT_LOOKUP) {
+                            queries.record(elapsed, TimeUnit.NANOSECONDS);
+                        }
+                        if (timings != null) {
+                            timings.record(RequestStage.DATABASE, elapsed);
+                        }
+                        if (queryEvent.shouldCommit()) {
+                            queryEvent.strategy = strategyName;
+                            queryEvent.outcome = switch (signal) {
+                                case ON_COMPLETE -> "complete";
+                                case ON_ERROR -> "error";
+                                default -> "cancel";
+                            };
+                            queryEvent.commit();
+                        }
+                    });
+        });
+    }
+
+    private Price mapRow(Row row, RowMetadata metadata, StageTimings timings, QueryScope scope) {
+        long startedAt = System.nanoTime();
+        Price price = priceRowMapper.mapRowToPrice(row, metadata);
+        long elapsed = System.nanoTime() - startedAt;
+        if (scope != QueryScope.OTHER) {
+            rowMappings.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        if (timings != null) {
+            timings.record(RequestStage.ROW_MAPPING, elapsed);
+        }
+        return price;
+    }
+
+    /**
+     * What a query answers, which decides the {@code price.request.stage} timers it records in.
+     */
+    private enum QueryScope {
+        POINT_LOOKUP,
+        COALESCED_LOOKUPS,
+        OTHER
     }
-} 
\ No newline at end of file
+}
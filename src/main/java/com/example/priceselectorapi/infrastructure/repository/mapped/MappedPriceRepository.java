@@ -0,0 +1,243 @@
+package com.example.priceselectorapi.infrastructure.repository.mapped;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.port.PriceCatalogRefreshPort;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import com.example.priceselectorapi.infrastructure.repository.mapper.PriceRowMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * {@link PriceRepositoryPort} that answers lookups from a memory-mapped {@link PriceRecordFile}
+ * written from the PRICES table at startup. The catalog is streamed to disk in the order of the
+ * catalog query and read through the page cache, so the heap does not grow with the catalog.
+ * Enabled with {@code app.repository.type=mapped}; the file location is
+ * {@code app.repository.mapped.file}.
+ * <p>
+ * Records are immutable: a refresh rewrites and remaps the whole file.
+ * <p>
+ * The file is also the warm-start snapshot. Its header carries a fingerprint of the PRICES table
+ * computed from a hash of every row; at startup an intact file whose fingerprint still matches is
+ * mapped directly instead of streaming the catalog again. The fingerprint is checked again every
+ * {@code app.repository.mapped.snapshot.check-interval} and at shutdown, and the file is rewritten
+ * when the table changed.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "mapped")
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class MappedPriceRepository implements PriceRepositoryPort, PriceCatalogRefreshPort {
+
+    private final DatabaseClient databaseClient;
+    private final PriceRowMapper priceRowMapper;
+    private final Map<String, String> sqlQueries;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final Duration SHUTDOWN_CHECK_TIMEOUT = Duration.ofSeconds(30);
+
+    @Value("${app.repository.mapped.file:${java.io.tmpdir}/price-selector/prices.dat}")
+    private Path file;
+
+    @Value("${app.repository.mapped.snapshot.check-interval:PT5M}")
+    private Duration snapshotCheckInterval = Duration.ofMinutes(5);
+
+    @Value("${app.repository.mapped.snapshot.verify-checksum:true}")
+    private boolean verifyChecksum = true;
+
+    private volatile PriceRecordFile records = PriceRecordFile.empty();
+    private Disposable snapshotChecks;
+
+    @PostConstruct
+    public void loadCatalog() {
+        long start = System.nanoTime();
+
+        long fingerprint = catalogFingerprint().block();
+        PriceRecordFile snapshot = openSnapshot(fingerprint);
+        if (snapshot != null) {
+            records = snapshot;
+            log.info("Warm start: mapped {} price records from snapshot {} written at {} in {} ms",
+                    records.recordCount(), file, records.createdAt(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            rebuild(fingerprint).block();
+            log.info("Mapped {} price records from {} in {} ms",
+                    records.recordCount(), file, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        if (!snapshotCheckInterval.isZero() && !snapshotCheckInterval.isNegative()) {
+            snapshotChecks = Flux.interval(snapshotCheckInterval, snapshotCheckInterval)
+                    .concatMap(tick -> rebuildIfStale()
+                            .onErrorResume(error -> {
+                                log.warn("Price snapshot check failed: {}", error.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe();
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotChecks != null) {
+            snapshotChecks.dispose();
+        }
+        try {
+            rebuildIfStale().block(SHUTDOWN_CHECK_TIMEOUT);
+        } catch (RuntimeException e) {
+            log.warn("Could not bring the price snapshot up to date at shutdown: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Flux<Price> findApplicablePrices(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        log.debug("Finding applicable mapped prices for productId: {}, brandId: {}, date: {}",
+                productId, brandId, applicationDate);
+
+        return Flux.fromIterable(records.findApplicable(applicationDate, productId, brandId));
+    }
+
+    @Override
+    public Flux<Price> findApplicablePrices(Collection<PriceLookupKey> keys) {
+        log.debug("Finding applicable mapped prices for {} keys", keys.size());
+
+        return Flux.fromIterable(keys)
+                .distinct()
+                .concatMap(key -> findApplicablePrices(key.getApplicationDate(), key.getProductId(), key.getBrandId()));
+    }
+
+    /**
+     * Walks the products of the brand in file order, one binary search per product, without
+     * collecting their ids first.
+     */
+    @Override
+    public Flux<Price> findApplicablePricesByBrand(LocalDateTime applicationDate, Integer brandId) {
+        log.debug("Streaming applicable mapped prices for brandId: {}, date: {}", brandId, applicationDate);
+
+        PriceRecordFile snapshot = records;
+        return Flux.<Long, Long>generate(() -> Long.MIN_VALUE, (fromProductId, sink) -> {
+                    Long productId = snapshot.nextProductId(brandId, fromProductId);
+                    if (productId == null) {
+                        sink.complete();
+                        return fromProductId;
+                    }
+                    sink.next(productId);
+                    if (productId == Long.MAX_VALUE) {
+                        sink.complete();
+                    }
+                    return productId + 1;
+                })
+                .concatMapIterable(productId -> snapshot.findApplicable(applicationDate, productId, brandId));
+    }
+
+    @Override
+    public Flux<Price> findPricesInRange(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId) {
+        log.debug("Finding mapped prices between {} and {} for productId: {}, brandId: {}",
+                from, to, productId, brandId);
+
+        return Flux.fromIterable(records.findOverlapping(from, to, productId, brandId));
+    }
+
+    @Override
+    public Mono<Void> refreshProduct(Integer brandId, Long productId) {
+        log.info("Rewriting price record file to refresh productId: {}, brandId: {}", productId, brandId);
+        return catalogFingerprint().flatMap(this::rebuild);
+    }
+
+    @Override
+    public Mono<Void> refreshBrand(Integer brandId) {
+        log.info("Rewriting price record file to refresh brandId: {}", brandId);
+        return catalogFingerprint().flatMap(this::rebuild);
+    }
+
+    private Mono<Void> rebuildIfStale() {
+        return catalogFingerprint()
+                .filter(fingerprint -> fingerprint != records.fingerprint())
+                .flatMap(fingerprint -> {
+                    log.info("PRICES changed since the snapshot was written, rewriting {}", file);
+                    return rebuild(fingerprint);
+                });
+    }
+
+    /**
+     * Maps the existing file if it is intact and was written from the current catalog, otherwise
+     * returns {@code null} so the catalog is streamed from the database.
+     */
+    private PriceRecordFile openSnapshot(long fingerprint) {
+        if (!Files.isRegularFile(file)) {
+            log.info("No price snapshot at {}, loading from the database", file);
+            return null;
+        }
+        try {
+            PriceRecordFile snapshot = PriceRecordFile.open(file, verifyChecksum);
+            if (snapshot.fingerprint() != fingerprint) {
+                log.info("Price snapshot {} is stale, loading from the database", file);
+                return null;
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            log.warn("Ignoring unreadable price snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Hashes the single row of the catalog fingerprint query: the row count and the XOR of a
+     * SHA-256 prefix of each row, all columns included. Every row hash includes the row id, so
+     * values swapped between rows change the fingerprint as well.
+     */
+    private Mono<Long> catalogFingerprint() {
+        return databaseClient.sql(sqlQueries.get("findCatalogFingerprint"))
+                .map((row, metadata) -> {
+                    long hash = FNV_OFFSET_BASIS;
+                    for (int i = 0; i < metadata.getColumnMetadatas().size(); i++) {
+                        for (byte b : String.valueOf(row.get(i)).getBytes(StandardCharsets.UTF_8)) {
+                            hash = (hash ^ b) * FNV_PRIME;
+                        }
+                        hash = (hash ^ ',') * FNV_PRIME;
+                    }
+                    return hash;
+                })
+                .one();
+    }
+
+    /**
+     * Streams the catalog query into a new file, swaps it in for lookups and maps it. A failed
+     * or cancelled write leaves the current file in place.
+     */
+    private Mono<Void> rebuild(long fingerprint) {
+        return Mono.usingWhen(
+                        Mono.fromCallable(() -> PriceRecordFile.writer(file)),
+                        writer -> databaseClient.sql(sqlQueries.get("findAllPrices"))
+                                .map(priceRowMapper::mapRowToPrice)
+                                .all()
+                                .publishOn(Schedulers.boundedElastic())
+                                .doOnNext(writer::append)
+                                .then(Mono.fromRunnable(() -> writer.commit(fingerprint))),
+                        writer -> Mono.fromRunnable(writer::close),
+                        (writer, error) -> Mono.fromRunnable(writer::close),
+                        writer -> Mono.fromRunnable(writer::close))
+                .then(Mono.fromCallable(() -> PriceRecordFile.open(file, false)))
+                .doOnNext(opened -> records = opened)
+                .then();
+    }
+}
@@ -0,0 +1,450 @@
+package com.example.priceselectorapi.infrastructure.repository.mapped;
+
+import com.example.priceselectorapi.domain.model.Price;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only, memory-mapped file of fixed-width price records sorted by (brandId, productId, startDate).
+ * <p>
+ * Lookups binary-search the mapped records and compare their fields in place; only the records a
+ * lookup returns are decoded into {@link Price}s. The file is mapped in chunks of at most
+ * {@value #DEFAULT_RECORDS_PER_CHUNK} records since a single mapping cannot exceed 2 GiB, and the
+ * pages live in the OS page cache, outside the heap and shared by every process mapping the file.
+ * <p>
+ * Layout, little-endian: a {@value #HEADER_SIZE}-byte header (magic, version, record size,
+ * record count, CRC32C of the records, catalog fingerprint, creation time) followed by
+ * {@value #RECORD_SIZE}-byte records. The fingerprint is chosen by the writer and lets a reader tell
+ * whether the file still matches its source, so the file doubles as a warm-start snapshot. Validity bounds are stored as epoch
+ * seconds of the local date-time against UTC plus their nano part, the amount in minor units at the
+ * scale of the PRICES column, and the currency as up to four ASCII bytes.
+ */
+public final class PriceRecordFile {
+
+    static final int MAGIC = 0x50524353;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 64;
+    static final int DEFAULT_RECORDS_PER_CHUNK = 1 << 24;
+    static final int AMOUNT_SCALE = 2;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int RECORD_COUNT_OFFSET = 16;
+    private static final int CHECKSUM_OFFSET = 24;
+    private static final int FINGERPRINT_OFFSET = 32;
+    private static final int CREATED_AT_OFFSET = 40;
+
+    private static final int BRAND_ID = 0;
+    private static final int START_NANO = 4;
+    private static final int PRODUCT_ID = 8;
+    private static final int START_SECOND = 16;
+    private static final int END_SECOND = 24;
+    private static final int END_NANO = 32;
+    private static final int PRIORITY = 36;
+    private static final int PRICE_LIST = 40;
+    private static final int CURRENCY = 44;
+    private static final int CURRENCY_LENGTH = 4;
+    private static final int ID = 48;
+    private static final int AMOUNT = 56;
+
+    private static final long NO_ID = Long.MIN_VALUE;
+    private static final PriceRecordFile EMPTY =
+            new PriceRecordFile(new ByteBuffer[0], 0, DEFAULT_RECORDS_PER_CHUNK, 0, Instant.EPOCH);
+
+    private final ByteBuffer[] chunks;
+    private final long recordCount;
+    private final int recordsPerChunk;
+    private final long fingerprint;
+    private final Instant createdAt;
+
+    private PriceRecordFile(ByteBuffer[] chunks, long recordCount, int recordsPerChunk,
+                            long fingerprint, Instant createdAt) {
+        this.chunks = chunks;
+        this.recordCount = recordCount;
+        this.recordsPerChunk = recordsPerChunk;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+    }
+
+    public static PriceRecordFile empty() {
+        return EMPTY;
+    }
+
+    public static PriceRecordFile open(Path path) {
+        return open(path, true);
+    }
+
+    /**
+     * Maps the file, optionally verifying the checksum of its records first. Verifying reads
+     * every page once, which also brings the file into the page cache.
+     */
+    public static PriceRecordFile open(Path path, boolean verifyChecksum) {
+        return open(path, verifyChecksum, DEFAULT_RECORDS_PER_CHUNK);
+    }
+
+    static PriceRecordFile open(Path path, boolean verifyChecksum, int recordsPerChunk) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION
+                    || header.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+                throw new IllegalStateException("Not a price record file of version " + VERSION + ": " + path);
+            }
+            long recordCount = header.getLong(RECORD_COUNT_OFFSET);
+            if (channel.size() != HEADER_SIZE + recordCount * RECORD_SIZE) {
+                throw new IllegalStateException("Truncated price record file: " + path);
+            }
+
+            int chunkCount = (int) ((recordCount + recordsPerChunk - 1) / recordsPerChunk);
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long firstRecord = (long) i * recordsPerChunk;
+                long records = Math.min(recordsPerChunk, recordCount - firstRecord);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                HEADER_SIZE + firstRecord * RECORD_SIZE, records * RECORD_SIZE)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            if (verifyChecksum && checksum(chunks) != header.getInt(CHECKSUM_OFFSET)) {
+                throw new IllegalStateException("Checksum mismatch in price record file: " + path);
+            }
+            return new PriceRecordFile(chunks, recordCount, recordsPerChunk,
+                    header.getLong(FINGERPRINT_OFFSET), Instant.ofEpochMilli(header.getLong(CREATED_AT_OFFSET)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map price record file " + path, e);
+        }
+    }
+
+    /**
+     * Starts writing a new file next to the target. Records must be appended in
+     * (brandId, productId, startDate) order; {@link Writer#commit()} moves the complete file over
+     * the target atomically, so processes still mapping the previous file keep reading it.
+     */
+    public static Writer writer(Path target) {
+        return new Writer(target);
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns every price of the product valid at the given date, ordered by the priority rule
+     * of {@link Price#outranks}.
+     */
+    public List<Price> findApplicable(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        long second = epochSecond(applicationDate);
+        int nano = applicationDate.getNano();
+        long first = firstRecordAtOrAfter(brandId, productId, Long.MIN_VALUE, 0);
+        long started = firstRecordAfter(brandId, productId, second, nano);
+
+        List<Price> applicable = new ArrayList<>(2);
+        for (long record = started - 1; record >= first; record--) {
+            if (!endsBefore(record, second, nano)) {
+                applicable.add(decode(record));
+            }
+        }
+        if (applicable.size() > 1) {
+            applicable.sort((a, b) -> a.outranks(b) ? -1 : b.outranks(a) ? 1 : 0);
+        }
+        return applicable;
+    }
+
+    /**
+     * Returns every price of the product valid at some instant between the two dates, inclusive,
+     * ordered by start date.
+     */
+    public List<Price> findOverlapping(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId) {
+        long fromSecond = epochSecond(from);
+        int fromNano = from.getNano();
+        long first = firstRecordAtOrAfter(brandId, productId, Long.MIN_VALUE, 0);
+        long started = firstRecordAfter(brandId, productId, epochSecond(to), to.getNano());
+
+        List<Price> overlapping = new ArrayList<>();
+        for (long record = first; record < started; record++) {
+            if (!endsBefore(record, fromSecond, fromNano)) {
+                overlapping.add(decode(record));
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Returns the smallest product id of the brand greater than or equal to the given one, or
+     * {@code null} when the brand has no more products.
+     */
+    public Long nextProductId(Integer brandId, long fromProductId) {
+        long record = firstRecordAtOrAfter(brandId, fromProductId, Long.MIN_VALUE, 0);
+        if (record >= recordCount || chunk(record).getInt(offset(record) + BRAND_ID) != brandId) {
+            return null;
+        }
+        return chunk(record).getLong(offset(record) + PRODUCT_ID);
+    }
+
+    private long firstRecordAtOrAfter(int brandId, long productId, long second, int nano) {
+        long low = 0;
+        long high = recordCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (compareKey(mid, brandId, productId, second, nano) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long firstRecordAfter(int brandId, long productId, long second, int nano) {
+        long low = 0;
+        long high = recordCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (compareKey(mid, brandId, productId, second, nano) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareKey(long record, int brandId, long productId, long second, int nano) {
+        ByteBuffer chunk = chunk(record);
+        int base = offset(record);
+        int byBrand = Integer.compare(chunk.getInt(base + BRAND_ID), brandId);
+        if (byBrand != 0) {
+            return byBrand;
+        }
+        int byProduct = Long.compare(chunk.getLong(base + PRODUCT_ID), productId);
+        if (byProduct != 0) {
+            return byProduct;
+        }
+        int bySecond = Long.compare(chunk.getLong(base + START_SECOND), second);
+        return bySecond != 0 ? bySecond : Integer.compare(chunk.getInt(base + START_NANO), nano);
+    }
+
+    private boolean endsBefore(long record, long second, int nano) {
+        ByteBuffer chunk = chunk(record);
+        int base = offset(record);
+        long endSecond = chunk.getLong(base + END_SECOND);
+        return endSecond < second || (endSecond == second && chunk.getInt(base + END_NANO) < nano);
+    }
+
+    private Price decode(long record) {
+        ByteBuffer chunk = chunk(record);
+        int base = offset(record);
+        long id = chunk.getLong(base + ID);
+        return Price.builder()
+                .id(id != NO_ID ? id : null)
+                .brandId(chunk.getInt(base + BRAND_ID))
+                .priceList(chunk.getInt(base + PRICE_LIST))
+                .productId(chunk.getLong(base + PRODUCT_ID))
+                .priority(chunk.getInt(base + PRIORITY))
+                .startDate(LocalDateTime.ofEpochSecond(chunk.getLong(base + START_SECOND),
+                        chunk.getInt(base + START_NANO), ZoneOffset.UTC))
+                .endDate(LocalDateTime.ofEpochSecond(chunk.getLong(base + END_SECOND),
+                        chunk.getInt(base + END_NANO), ZoneOffset.UTC))
+                .priceAmount(BigDecimal.valueOf(chunk.getLong(base + AMOUNT), AMOUNT_SCALE))
+                .curr(decodeCurrency(chunk, base + CURRENCY))
+                .build();
+    }
+
+    private ByteBuffer chunk(long record) {
+        return chunks[(int) (record / recordsPerChunk)];
+    }
+
+    private int offset(long record) {
+        return (int) (record % recordsPerChunk) * RECORD_SIZE;
+    }
+
+    private static int checksum(ByteBuffer[] chunks) {
+        CRC32C crc = new CRC32C();
+        for (ByteBuffer chunk : chunks) {
+            crc.update(chunk.duplicate().clear());
+        }
+        return (int) crc.getValue();
+    }
+
+    private static String decodeCurrency(ByteBuffer chunk, int offset) {
+        byte[] code = new byte[CURRENCY_LENGTH];
+        int length = 0;
+        while (length < CURRENCY_LENGTH && chunk.get(offset + length) != 0) {
+            code[length] = chunk.get(offset + length);
+            length++;
+        }
+        return new String(code, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Streams records into a temporary file through a small buffer, so writing a catalog never
+     * holds more than one price on the heap.
+     */
+    public static final class Writer implements Closeable {
+
+        private static final int BUFFER_RECORDS = 1024;
+
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C checksum = new CRC32C();
+        private long recordCount;
+        private Price previous;
+        private boolean committed;
+
+        private Writer(Path target) {
+            try {
+                Path directory = target.toAbsolutePath().getParent();
+                Files.createDirectories(directory);
+                this.target = target;
+                this.temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+                this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+                channel.position(HEADER_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create price record file next to " + target, e);
+            }
+        }
+
+        public void append(Price price) {
+            if (previous != null && isOutOfOrder(previous, price)) {
+                throw new IllegalStateException("Prices must be appended by brand, product and start date; price "
+                        + price.getId() + " follows price " + previous.getId());
+            }
+            byte[] currency = price.getCurr().getBytes(StandardCharsets.US_ASCII);
+            if (currency.length > CURRENCY_LENGTH) {
+                throw new IllegalArgumentException("Currency code too long for a price record: " + price.getCurr());
+            }
+
+            int base = buffer.position();
+            buffer.putInt(base + BRAND_ID, price.getBrandId())
+                    .putInt(base + START_NANO, price.getStartDate().getNano())
+                    .putLong(base + PRODUCT_ID, price.getProductId())
+                    .putLong(base + START_SECOND, epochSecond(price.getStartDate()))
+                    .putLong(base + END_SECOND, epochSecond(price.getEndDate()))
+                    .putInt(base + END_NANO, price.getEndDate().getNano())
+                    .putInt(base + PRIORITY, price.getPriority())
+                    .putInt(base + PRICE_LIST, price.getPriceList())
+                    .putInt(base + CURRENCY, 0)
+                    .put(base + CURRENCY, currency)
+                    .putLong(base + ID, price.getId() != null ? price.getId() : NO_ID)
+                    .putLong(base + AMOUNT, toMinorUnits(price.getPriceAmount()));
+            buffer.position(base + RECORD_SIZE);
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            previous = price;
+            recordCount++;
+        }
+
+        /**
+         * Writes the header with the given source fingerprint, forces the file to disk and moves it
+         * over the target.
+         */
+        public void commit(long fingerprint) {
+            try {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt(MAGIC_OFFSET, MAGIC)
+                        .putInt(VERSION_OFFSET, VERSION)
+                        .putInt(RECORD_SIZE_OFFSET, RECORD_SIZE)
+                        .putLong(RECORD_COUNT_OFFSET, recordCount)
+                        .putInt(CHECKSUM_OFFSET, (int) checksum.getValue())
+                        .putLong(FINGERPRINT_OFFSET, fingerprint)
+                        .putLong(CREATED_AT_OFFSET, System.currentTimeMillis());
+                channel.write(header, 0);
+                channel.force(true);
+                channel.close();
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                committed = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write price record file " + target, e);
+            }
+        }
+
+        public long recordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Discards the temporary file unless the writer was committed.
+         */
+        @Override
+        public void close() {
+            if (committed) {
+                return;
+            }
+            try {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not discard price record file " + temporary, e);
+            }
+        }
+
+        private void flush() {
+            try {
+                buffer.flip();
+                checksum.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write price record file " + target, e);
+            }
+        }
+
+        private static boolean isOutOfOrder(Price previous, Price next) {
+            int byBrand = previous.getBrandId().compareTo(next.getBrandId());
+            if (byBrand != 0) {
+                return byBrand > 0;
+            }
+            int byProduct = previous.getProductId().compareTo(next.getProductId());
+            if (byProduct != 0) {
+                return byProduct > 0;
+            }
+            return previous.getStartDate().isAfter(next.getStartDate());
+        }
+
+        private static long toMinorUnits(BigDecimal amount) {
+            try {
+                return amount.movePointRight(AMOUNT_SCALE).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Price amount " + amount + " has more than "
+                        + AMOUNT_SCALE + " decimals or is out of range", e);
+            }
+        }
+    }
+}
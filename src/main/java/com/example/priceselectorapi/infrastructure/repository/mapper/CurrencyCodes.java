@@ -0,0 +1,63 @@
+package com.example.priceselectorapi.infrastructure.repository.mapper;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide table of the currency codes seen, each checked once to be an ISO 4217 code and
+ * given a small index. Mapped rows share one code string per currency through {@link #intern},
+ * and the in-memory compact prices store their currency as that {@code short} index.
+ */
+public final class CurrencyCodes {
+
+    private static final Map<String, Short> INDEX_BY_CODE = new ConcurrentHashMap<>();
+    private static volatile String[] codes = new String[0];
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * Returns the shared instance of the code.
+     *
+     * @throws IllegalArgumentException if the code is missing or not an ISO 4217 currency code.
+     */
+    public static String intern(String code) {
+        return codeOf(indexOf(code));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the code is missing or not an ISO 4217 currency code.
+     */
+    public static short indexOf(String code) {
+        if (code == null) {
+            throw new IllegalArgumentException("Currency code is required");
+        }
+        Short index = INDEX_BY_CODE.get(code);
+        return index != null ? index : register(code);
+    }
+
+    public static String codeOf(short index) {
+        return codes[index];
+    }
+
+    private static short register(String code) {
+        Currency.getInstance(code);
+        synchronized (INDEX_BY_CODE) {
+            Short index = INDEX_BY_CODE.get(code);
+            if (index != null) {
+                return index;
+            }
+            if (codes.length == Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct currency codes");
+            }
+            short newIndex = (short) codes.length;
+            String[] grown = Arrays.copyOf(codes, codes.length + 1);
+            grown[newIndex] = code;
+            codes = grown;
+            INDEX_BY_CODE.put(code, newIndex);
+            return newIndex;
+        }
+    }
+}
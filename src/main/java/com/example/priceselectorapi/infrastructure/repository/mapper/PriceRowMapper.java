@@ -6,16 +6,54 @@ import com.example.priceselectorapi.domain.model.valueobject.Money;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Maps PRICES rows to {@link Price}. Two modes are available through {@code app.repository.row-mapper}:
+ * <ul>
+ *   <li>{@code named}: reads columns by name and builds the {@link DateRange} and {@link Money}
+ *       value objects eagerly next to the raw fields.</li>
+ *   <li>{@code positional} (default): reads columns by index against the fixed projection shared by
+ *       every price query ({@code id, brand_id, start_date, end_date, price_list, product_id, priority,
+ *       price_amount, curr}) and sets only the raw fields; {@link Price} builds its value objects on
+ *       first access. The raw fields are still checked: start not after end, an amount present and
+ *       not negative, and an ISO currency code, interned through {@link CurrencyCodes} so cached
+ *       prices share one instance per code.</li>
+ * </ul>
+ */
 @Component
 @Slf4j
 public class PriceRowMapper {
 
+    private static final int ID = 0;
+    private static final int BRAND_ID = 1;
+    private static final int START_DATE = 2;
+    private static final int END_DATE = 3;
+    private static final int PRICE_LIST = 4;
+    private static final int PRODUCT_ID = 5;
+    private static final int PRIORITY = 6;
+    private static final int PRICE_AMOUNT = 7;
+    private static final int CURRENCY = 8;
+
+    @Value("${app.repository.row-mapper:positional}")
+    private MappingMode mappingMode = MappingMode.POSITIONAL;
+
+    public PriceRowMapper() {
+    }
+
+    public PriceRowMapper(MappingMode mappingMode) {
+        this.mappingMode = mappingMode;
+    }
+
     public Price mapRowToPrice(Row row, RowMetadata metadata) {
+        return mappingMode == MappingMode.POSITIONAL ? mapByPosition(row) : mapByName(row);
+    }
+
+    private Price mapByName(Row row) {
         log.debug("Mapping database row to Price entity");
         
         try {
@@ -26,7 +64,7 @@ public class PriceRowMapper {
             Integer priceList = row.get("price_list", Integer.class);
             Long productId = row.get("product_id", Long.class);
             Integer priority = row.get("priority", Integer.class);
-            BigDecimal priceAmount = row.get("price_amount", BigDecimal.class);
+            BigDecimal priceAmount = requireValidAmount(row.get("price_amount", BigDecimal.class));
             String currency = row.get("curr", String.class);
 
             DateRange validityPeriod = DateRange.of(startDate, endDate);
@@ -51,4 +89,43 @@ public class PriceRowMapper {
             throw new RuntimeException("Failed to map database row to Price entity", e);
         }
     }
-} 
\ No newline at end of file
+
+    private Price mapByPosition(Row row) {
+        try {
+            LocalDateTime startDate = row.get(START_DATE, LocalDateTime.class);
+            LocalDateTime endDate = row.get(END_DATE, LocalDateTime.class);
+            if (startDate.isAfter(endDate)) {
+                throw new IllegalArgumentException("Start date cannot be after end date");
+            }
+            BigDecimal priceAmount = requireValidAmount(row.get(PRICE_AMOUNT, BigDecimal.class));
+
+            return Price.builder()
+                    .id(row.get(ID, Long.class))
+                    .brandId(row.get(BRAND_ID, Integer.class))
+                    .priceList(row.get(PRICE_LIST, Integer.class))
+                    .productId(row.get(PRODUCT_ID, Long.class))
+                    .priority(row.get(PRIORITY, Integer.class))
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .priceAmount(priceAmount)
+                    .curr(CurrencyCodes.intern(row.get(CURRENCY, String.class)))
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Error mapping database row to Price entity", e);
+            throw new RuntimeException("Failed to map database row to Price entity", e);
+        }
+    }
+
+    private static BigDecimal requireValidAmount(BigDecimal priceAmount) {
+        if (priceAmount == null || priceAmount.signum() < 0) {
+            throw new IllegalArgumentException("Price amount must be present and not negative");
+        }
+        return priceAmount;
+    }
+
+    public enum MappingMode {
+        NAMED,
+        POSITIONAL
+    }
+}
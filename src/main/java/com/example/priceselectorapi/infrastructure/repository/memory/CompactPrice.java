@@ -0,0 +1,114 @@
+package com.example.priceselectorapi.infrastructure.repository.memory;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.infrastructure.repository.mapper.CurrencyCodes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Primitive read model of a {@link Price} for the in-memory index: validity bounds as epoch
+ * seconds (plus the sub-second part, almost always zero), the amount in minor units at the
+ * scale of the PRICES column, the currency as a {@link CurrencyCodes} index, and unboxed ids.
+ * One flat object of about 80 bytes replaces the Price graph of boxed fields, date-times,
+ * BigDecimal and value objects.
+ * <p>
+ * Epoch values encode the local date-times against UTC; they are only compared with each
+ * other, never interpreted as instants. {@link #toPrice()} rebuilds an equal {@link Price}.
+ */
+public final class CompactPrice {
+
+    static final int AMOUNT_SCALE = 2;
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    private final long id;
+    private final long productId;
+    private final long startSecond;
+    private final long endSecond;
+    private final long amountMinorUnits;
+    private final int startNano;
+    private final int endNano;
+    private final int brandId;
+    private final int priceList;
+    private final int priority;
+    private final short currency;
+
+    private CompactPrice(Price price) {
+        this.id = price.getId() != null ? price.getId() : NO_ID;
+        this.productId = price.getProductId();
+        this.startSecond = price.getStartDate().toEpochSecond(ZoneOffset.UTC);
+        this.startNano = price.getStartDate().getNano();
+        this.endSecond = price.getEndDate().toEpochSecond(ZoneOffset.UTC);
+        this.endNano = price.getEndDate().getNano();
+        this.amountMinorUnits = toMinorUnits(price.getPriceAmount());
+        this.brandId = price.getBrandId();
+        this.priceList = price.getPriceList();
+        this.priority = price.getPriority();
+        this.currency = CurrencyCodes.indexOf(price.getCurr());
+    }
+
+    public static CompactPrice of(Price price) {
+        return new CompactPrice(price);
+    }
+
+    public Price toPrice() {
+        return Price.builder()
+                .id(id != NO_ID ? id : null)
+                .brandId(brandId)
+                .priceList(priceList)
+                .productId(productId)
+                .priority(priority)
+                .startDate(LocalDateTime.ofEpochSecond(startSecond, startNano, ZoneOffset.UTC))
+                .endDate(LocalDateTime.ofEpochSecond(endSecond, endNano, ZoneOffset.UTC))
+                .priceAmount(BigDecimal.valueOf(amountMinorUnits, AMOUNT_SCALE))
+                .curr(CurrencyCodes.codeOf(currency))
+                .build();
+    }
+
+    boolean startsAfter(long second, int nano) {
+        return startSecond > second || (startSecond == second && startNano > nano);
+    }
+
+    boolean endsBefore(long second, int nano) {
+        return endSecond < second || (endSecond == second && endNano < nano);
+    }
+
+    boolean endsAfter(CompactPrice other) {
+        return endSecond > other.endSecond || (endSecond == other.endSecond && endNano > other.endNano);
+    }
+
+    boolean startsBefore(CompactPrice other) {
+        return startSecond < other.startSecond || (startSecond == other.startSecond && startNano < other.startNano);
+    }
+
+    /**
+     * Same rule as {@link Price#outranks}: higher priority, then most recent start, then highest id.
+     */
+    boolean outranks(CompactPrice other) {
+        if (priority != other.priority) {
+            return priority > other.priority;
+        }
+        if (startSecond != other.startSecond || startNano != other.startNano) {
+            return other.startsBefore(this);
+        }
+        return id != NO_ID && id > other.id;
+    }
+
+    long getProductId() {
+        return productId;
+    }
+
+    int getBrandId() {
+        return brandId;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.movePointRight(AMOUNT_SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price amount " + amount + " has more than "
+                    + AMOUNT_SCALE + " decimals or is out of range", e);
+        }
+    }
+}
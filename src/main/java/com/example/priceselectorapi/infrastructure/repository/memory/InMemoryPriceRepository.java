@@ -0,0 +1,161 @@
+package com.example.priceselectorapi.infrastructure.repository.memory;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.port.PriceCatalogRefreshPort;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import com.example.priceselectorapi.infrastructure.repository.mapper.PriceRowMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link PriceRepositoryPort} that answers lookups from a {@link PriceIntervalIndex}
+ * loaded once from the PRICES table at startup, so lookups perform no I/O.
+ * Enabled with {@code app.repository.type=in-memory}.
+ * <p>
+ * With {@code app.repository.in-memory.lookup=timeline} only the winning price is returned,
+ * resolved from the precomputed winner timeline instead of the overlapping intervals.
+ * <p>
+ * The full load and the product and brand refreshes all swap a rebuilt copy of the index in
+ * atomically. Every read takes a version before it runs, so a refresh racing a full load is
+ * neither lost nor overwritten by older rows.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "in-memory")
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryPriceRepository implements PriceRepositoryPort, PriceCatalogRefreshPort {
+
+    private final DatabaseClient databaseClient;
+    private final PriceRowMapper priceRowMapper;
+    private final Map<String, String> sqlQueries;
+
+    @Value("${app.repository.in-memory.lookup:intervals}")
+    private LookupMode lookupMode = LookupMode.INTERVALS;
+
+    private final AtomicLong readVersions = new AtomicLong();
+    private final AtomicReference<PriceIntervalIndex> index = new AtomicReference<>(PriceIntervalIndex.empty());
+
+    @PostConstruct
+    public void loadCatalog() {
+        long start = System.nanoTime();
+        long readVersion = readVersions.incrementAndGet();
+
+        List<Price> prices = databaseClient.sql(sqlQueries.get("findAllPrices"))
+                .map(priceRowMapper::mapRowToPrice)
+                .all()
+                .collectList()
+                .block();
+
+        PriceIntervalIndex loaded = PriceIntervalIndex.of(prices == null ? List.of() : prices, readVersion);
+        PriceIntervalIndex current = index.updateAndGet(loaded::replace);
+
+        log.info("Loaded {} prices for {} products into the in-memory index in {} ms (lookup mode: {})",
+                current.priceCount(), current.productCount(), (System.nanoTime() - start) / 1_000_000, lookupMode);
+    }
+
+    @Override
+    public Flux<Price> findApplicablePrices(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        log.debug("Finding applicable prices in memory for productId: {}, brandId: {}, date: {}",
+                productId, brandId, applicationDate);
+
+        if (lookupMode == LookupMode.TIMELINE) {
+            return Mono.justOrEmpty(index.get().findWinner(applicationDate, productId, brandId)).flux();
+        }
+        return Flux.fromIterable(index.get().findApplicable(applicationDate, productId, brandId));
+    }
+
+    @Override
+    public Flux<Price> findApplicablePrices(Collection<PriceLookupKey> keys) {
+        log.debug("Finding applicable prices in memory for {} keys", keys.size());
+
+        return Flux.fromIterable(keys)
+                .distinct()
+                .concatMap(key -> findApplicablePrices(key.getApplicationDate(), key.getProductId(), key.getBrandId()));
+    }
+
+    @Override
+    public Flux<Price> findApplicablePricesByBrand(LocalDateTime applicationDate, Integer brandId) {
+        log.debug("Streaming applicable prices in memory for brandId: {}, date: {}", brandId, applicationDate);
+
+        return Flux.fromIterable(index.get().productIds(brandId))
+                .concatMap(productId -> findApplicablePrices(applicationDate, productId, brandId));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findSegmentEnd(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        return index.get().findSegmentEnd(applicationDate, productId, brandId);
+    }
+
+    @Override
+    public Flux<Price> findPricesInRange(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId) {
+        log.debug("Finding prices in memory between {} and {} for productId: {}, brandId: {}",
+                from, to, productId, brandId);
+
+        return Flux.fromIterable(index.get().findOverlapping(from, to, productId, brandId));
+    }
+
+    /**
+     * Reloads the rows of a single product and rebuilds only its intervals and timeline.
+     */
+    @Override
+    public Mono<Void> refreshProduct(Integer brandId, Long productId) {
+        return Mono.defer(() -> {
+            long readVersion = readVersions.incrementAndGet();
+            return databaseClient.sql(sqlQueries.get("findProductPrices"))
+                    .bind("brandId", brandId)
+                    .bind("productId", productId)
+                    .map(priceRowMapper::mapRowToPrice)
+                    .all()
+                    .collectList()
+                    .doOnNext(prices -> {
+                        index.updateAndGet(current -> current.withProduct(brandId, productId, prices, readVersion));
+                        log.info("Rebuilt in-memory index for productId: {}, brandId: {} with {} prices",
+                                productId, brandId, prices.size());
+                    })
+                    .then();
+        });
+    }
+
+    /**
+     * Reloads the rows of a brand and rebuilds only the products of that brand.
+     */
+    @Override
+    public Mono<Void> refreshBrand(Integer brandId) {
+        return Mono.defer(() -> {
+            long readVersion = readVersions.incrementAndGet();
+            return databaseClient.sql(sqlQueries.get("findBrandPrices"))
+                    .bind("brandId", brandId)
+                    .map(priceRowMapper::mapRowToPrice)
+                    .all()
+                    .collectList()
+                    .doOnNext(prices -> {
+                        index.updateAndGet(current -> current.withBrand(brandId, prices, readVersion));
+                        log.info("Rebuilt in-memory index for brandId: {} with {} prices", brandId, prices.size());
+                    })
+                    .then();
+        });
+    }
+
+    public enum LookupMode {
+        INTERVALS,
+        TIMELINE
+    }
+}
@@ -0,0 +1,425 @@
+package com.example.priceselectorapi.infrastructure.repository.memory;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.timeline.PriceSegment;
+import com.example.priceselectorapi.domain.model.timeline.PriceTimeline;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of price intervals grouped by (brandId, productId).
+ * Each group keeps its prices sorted by start date together with a running maximum
+ * of end dates, so a lookup is a binary search followed by a short backward scan
+ * that stops as soon as no earlier interval can still be open. Each group also holds
+ * its precomputed {@link PriceTimeline} of winners.
+ * <p>
+ * Prices are stored as {@link CompactPrice}s and converted back to {@link Price} only for
+ * the results a lookup returns.
+ * <p>
+ * The index is immutable. A product or brand whose rows change is rebuilt on its own into a copy
+ * of the index ({@link #withProduct}, {@link #withBrand}) that shares every other product, and
+ * the copy is swapped in by the owner. Each catalog and each rebuilt product carries the version
+ * of the read it came from, so a rebuild older than what the index holds is ignored and a fresh
+ * catalog keeps the products rebuilt from newer reads while it was loading ({@link #replace}).
+ */
+public final class PriceIntervalIndex {
+
+    /**
+     * Same ordering as the SQL path (priority DESC), with the tie-break of {@link CompactPrice#outranks}
+     * so results are deterministic.
+     */
+    static final Comparator<CompactPrice> APPLICABLE_ORDER = (first, second) ->
+            first.outranks(second) ? -1 : second.outranks(first) ? 1 : 0;
+
+    private final Map<ProductKey, ProductIntervals> intervalsByProduct;
+    private final long version;
+    /**
+     * Versions of the products rebuilt from reads newer than the catalog, including removed ones.
+     */
+    private final Map<ProductKey, Long> productVersions;
+
+    private PriceIntervalIndex(Map<ProductKey, ProductIntervals> intervalsByProduct, long version,
+                               Map<ProductKey, Long> productVersions) {
+        this.intervalsByProduct = intervalsByProduct;
+        this.version = version;
+        this.productVersions = productVersions;
+    }
+
+    public static PriceIntervalIndex empty() {
+        return new PriceIntervalIndex(Map.of(), 0, Map.of());
+    }
+
+    public static PriceIntervalIndex of(Collection<Price> prices) {
+        return of(prices, 0);
+    }
+
+    /**
+     * Index of a full catalog read at the given version.
+     */
+    public static PriceIntervalIndex of(Collection<Price> prices, long version) {
+        Map<ProductKey, List<Price>> grouped = prices.stream()
+                .collect(Collectors.groupingBy(price -> new ProductKey(price.getBrandId(), price.getProductId())));
+
+        Map<ProductKey, ProductIntervals> intervals = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, productPrices) -> intervals.put(key, ProductIntervals.of(productPrices)));
+        return new PriceIntervalIndex(intervals, version, Map.of());
+    }
+
+    /**
+     * Returns every price of the product that is valid at the given date, ordered by
+     * priority descending, i.e. exactly the rows the applicable price query returns.
+     */
+    public List<Price> findApplicable(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        ProductIntervals intervals = intervalsByProduct.get(new ProductKey(brandId, productId));
+        if (intervals == null) {
+            return List.of();
+        }
+        return intervals.findApplicable(applicationDate);
+    }
+
+    /**
+     * Returns every price of the product valid at some instant between the two dates, inclusive,
+     * ordered by start date.
+     */
+    public List<Price> findOverlapping(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId) {
+        ProductIntervals intervals = intervalsByProduct.get(new ProductKey(brandId, productId));
+        if (intervals == null) {
+            return List.of();
+        }
+        return intervals.findOverlapping(from, to);
+    }
+
+    /**
+     * Resolves the winning price of the product at the given date from its precomputed timeline.
+     */
+    public Optional<Price> findWinner(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        ProductIntervals intervals = intervalsByProduct.get(new ProductKey(brandId, productId));
+        if (intervals == null) {
+            return Optional.empty();
+        }
+        return intervals.findWinner(applicationDate);
+    }
+
+    /**
+     * End of the timeline segment of the product holding the given date, the last instant its
+     * winner keeps winning; empty when no price applies at the date.
+     */
+    public Optional<LocalDateTime> findSegmentEnd(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        ProductIntervals intervals = intervalsByProduct.get(new ProductKey(brandId, productId));
+        if (intervals == null) {
+            return Optional.empty();
+        }
+        return intervals.findSegmentEnd(applicationDate);
+    }
+
+    /**
+     * Domain timeline of the product, rebuilt from the compact prices on every call.
+     */
+    public PriceTimeline getTimeline(Long productId, Integer brandId) {
+        ProductIntervals intervals = intervalsByProduct.get(new ProductKey(brandId, productId));
+        return intervals == null ? PriceTimeline.empty() : intervals.toTimeline();
+    }
+
+    ProductIntervals intervals(Long productId, Integer brandId) {
+        return intervalsByProduct.get(new ProductKey(brandId, productId));
+    }
+
+    /**
+     * Ids of the indexed products of a brand in ascending order.
+     */
+    public List<Long> productIds(Integer brandId) {
+        return intervalsByProduct.keySet().stream()
+                .filter(key -> key.getBrandId().equals(brandId))
+                .map(ProductKey::getProductId)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Copy of this index with the intervals and the timeline of a single product rebuilt from
+     * rows read at the given version. An empty list removes the product. Returns this index when
+     * it already holds the product from a read at least as recent.
+     */
+    public PriceIntervalIndex withProduct(Integer brandId, Long productId, Collection<Price> prices, long readVersion) {
+        ProductKey key = new ProductKey(brandId, productId);
+        if (versionOf(key) >= readVersion) {
+            return this;
+        }
+        Map<ProductKey, ProductIntervals> intervals = new HashMap<>(intervalsByProduct);
+        Map<ProductKey, Long> versions = new HashMap<>(productVersions);
+        put(intervals, versions, key, List.copyOf(prices), readVersion);
+        return new PriceIntervalIndex(intervals, version, versions);
+    }
+
+    /**
+     * Copy of this index with every product of a brand rebuilt from rows read at the given
+     * version; products of the brand without rows anymore are removed. Products already held from
+     * a read at least as recent are kept.
+     */
+    public PriceIntervalIndex withBrand(Integer brandId, Collection<Price> prices, long readVersion) {
+        Map<Long, List<Price>> pricesByProduct = prices.stream()
+                .collect(Collectors.groupingBy(Price::getProductId));
+
+        Map<ProductKey, ProductIntervals> intervals = new HashMap<>(intervalsByProduct);
+        Map<ProductKey, Long> versions = new HashMap<>(productVersions);
+        pricesByProduct.forEach((productId, productPrices) -> {
+            ProductKey key = new ProductKey(brandId, productId);
+            if (versionOf(key) < readVersion) {
+                put(intervals, versions, key, productPrices, readVersion);
+            }
+        });
+        intervalsByProduct.keySet().stream()
+                .filter(key -> key.getBrandId().equals(brandId) && !pricesByProduct.containsKey(key.getProductId()))
+                .filter(key -> versionOf(key) < readVersion)
+                .forEach(key -> put(intervals, versions, key, List.of(), readVersion));
+        return new PriceIntervalIndex(intervals, version, versions);
+    }
+
+    /**
+     * Index to swap in for {@code current} once this catalog has been loaded: {@code current}
+     * itself when it holds a more recent catalog, otherwise this catalog together with the
+     * products {@code current} rebuilt from reads newer than this catalog.
+     */
+    public PriceIntervalIndex replace(PriceIntervalIndex current) {
+        if (current.version > version) {
+            return current;
+        }
+        Map<ProductKey, Long> newer = new HashMap<>();
+        current.productVersions.forEach((key, productVersion) -> {
+            if (productVersion > version) {
+                newer.put(key, productVersion);
+            }
+        });
+        if (newer.isEmpty()) {
+            return this;
+        }
+        Map<ProductKey, ProductIntervals> intervals = new HashMap<>(intervalsByProduct);
+        newer.keySet().forEach(key -> {
+            ProductIntervals productIntervals = current.intervalsByProduct.get(key);
+            if (productIntervals == null) {
+                intervals.remove(key);
+            } else {
+                intervals.put(key, productIntervals);
+            }
+        });
+        return new PriceIntervalIndex(intervals, version, newer);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int productCount() {
+        return intervalsByProduct.size();
+    }
+
+    public int priceCount() {
+        return intervalsByProduct.values().stream()
+                .mapToInt(ProductIntervals::size)
+                .sum();
+    }
+
+    private long versionOf(ProductKey key) {
+        return productVersions.getOrDefault(key, version);
+    }
+
+    private static void put(Map<ProductKey, ProductIntervals> intervals, Map<ProductKey, Long> versions,
+                            ProductKey key, List<Price> prices, long readVersion) {
+        if (prices.isEmpty()) {
+            intervals.remove(key);
+        } else {
+            intervals.put(key, ProductIntervals.of(prices));
+        }
+        versions.put(key, readVersion);
+    }
+
+    @Value
+    static class ProductKey {
+        Integer brandId;
+        Long productId;
+    }
+
+    /**
+     * Prices and winner timeline of one product in their {@link CompactPrice} form. The timeline
+     * is computed once from the domain {@link PriceTimeline} and kept as parallel arrays of
+     * segment bounds and winners, so no {@link Price} survives the build.
+     */
+    static final class ProductIntervals {
+
+        private final CompactPrice[] prices;
+        private final CompactPrice[] maxEndPrices;
+        private final CompactPrice[] segmentWinners;
+        private final long[] segmentStartSeconds;
+        private final int[] segmentStartNanos;
+        private final long[] segmentEndSeconds;
+        private final int[] segmentEndNanos;
+
+        private ProductIntervals(CompactPrice[] prices, CompactPrice[] maxEndPrices, CompactPrice[] segmentWinners,
+                                 long[] segmentStartSeconds, int[] segmentStartNanos,
+                                 long[] segmentEndSeconds, int[] segmentEndNanos) {
+            this.prices = prices;
+            this.maxEndPrices = maxEndPrices;
+            this.segmentWinners = segmentWinners;
+            this.segmentStartSeconds = segmentStartSeconds;
+            this.segmentStartNanos = segmentStartNanos;
+            this.segmentEndSeconds = segmentEndSeconds;
+            this.segmentEndNanos = segmentEndNanos;
+        }
+
+        static ProductIntervals of(List<Price> productPrices) {
+            Map<Price, CompactPrice> compactByPrice = new IdentityHashMap<>(productPrices.size() * 2);
+            for (Price price : productPrices) {
+                compactByPrice.put(price, CompactPrice.of(price));
+            }
+
+            CompactPrice[] sorted = productPrices.stream()
+                    .sorted(Comparator.comparing(Price::getStartDate))
+                    .map(compactByPrice::get)
+                    .toArray(CompactPrice[]::new);
+
+            CompactPrice[] maxEndPrices = new CompactPrice[sorted.length];
+            CompactPrice maxEnd = null;
+            for (int i = 0; i < sorted.length; i++) {
+                maxEnd = maxEnd == null || sorted[i].endsAfter(maxEnd) ? sorted[i] : maxEnd;
+                maxEndPrices[i] = maxEnd;
+            }
+
+            List<PriceSegment> segments = PriceTimeline.of(productPrices).getSegments();
+            CompactPrice[] winners = new CompactPrice[segments.size()];
+            long[] startSeconds = new long[segments.size()];
+            int[] startNanos = new int[segments.size()];
+            long[] endSeconds = new long[segments.size()];
+            int[] endNanos = new int[segments.size()];
+            for (int i = 0; i < winners.length; i++) {
+                PriceSegment segment = segments.get(i);
+                winners[i] = compactByPrice.get(segment.getPrice());
+                startSeconds[i] = epochSecond(segment.getStartDate());
+                startNanos[i] = segment.getStartDate().getNano();
+                endSeconds[i] = epochSecond(segment.getEndDate());
+                endNanos[i] = segment.getEndDate().getNano();
+            }
+            return new ProductIntervals(sorted, maxEndPrices, winners, startSeconds, startNanos, endSeconds, endNanos);
+        }
+
+        List<Price> findApplicable(LocalDateTime applicationDate) {
+            long second = epochSecond(applicationDate);
+            int nano = applicationDate.getNano();
+            int candidates = countStartedAt(second, nano);
+            List<CompactPrice> applicable = new ArrayList<>(2);
+
+            for (int i = candidates - 1; i >= 0 && !maxEndPrices[i].endsBefore(second, nano); i--) {
+                if (!prices[i].endsBefore(second, nano)) {
+                    applicable.add(prices[i]);
+                }
+            }
+
+            if (applicable.size() > 1) {
+                applicable.sort(APPLICABLE_ORDER);
+            }
+            return toPrices(applicable);
+        }
+
+        List<Price> findOverlapping(LocalDateTime from, LocalDateTime to) {
+            long fromSecond = epochSecond(from);
+            int fromNano = from.getNano();
+            int candidates = countStartedAt(epochSecond(to), to.getNano());
+            List<CompactPrice> overlapping = new ArrayList<>(candidates);
+            for (int i = 0; i < candidates; i++) {
+                if (!prices[i].endsBefore(fromSecond, fromNano)) {
+                    overlapping.add(prices[i]);
+                }
+            }
+            return toPrices(overlapping);
+        }
+
+        Optional<Price> findWinner(LocalDateTime applicationDate) {
+            int index = segmentAt(applicationDate);
+            return index < 0 ? Optional.empty() : Optional.of(segmentWinners[index].toPrice());
+        }
+
+        Optional<LocalDateTime> findSegmentEnd(LocalDateTime applicationDate) {
+            int index = segmentAt(applicationDate);
+            return index < 0 ? Optional.empty()
+                    : Optional.of(LocalDateTime.ofEpochSecond(segmentEndSeconds[index], segmentEndNanos[index], ZoneOffset.UTC));
+        }
+
+        /**
+         * Rebuilds the domain timeline from the stored prices; not used on the lookup path.
+         */
+        PriceTimeline toTimeline() {
+            return PriceTimeline.of(toPrices(Arrays.asList(prices)));
+        }
+
+        int size() {
+            return prices.length;
+        }
+
+        /**
+         * Binary search for the segment holding the given instant, or -1 when it falls in a gap.
+         */
+        private int segmentAt(LocalDateTime applicationDate) {
+            long second = epochSecond(applicationDate);
+            int nano = applicationDate.getNano();
+            int low = 0;
+            int high = segmentWinners.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isAfter(segmentStartSeconds[mid], segmentStartNanos[mid], second, nano)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            int index = low - 1;
+            if (index < 0 || isAfter(second, nano, segmentEndSeconds[index], segmentEndNanos[index])) {
+                return -1;
+            }
+            return index;
+        }
+
+        /**
+         * Binary search for the number of intervals whose start date is not after the given instant.
+         */
+        private int countStartedAt(long second, int nano) {
+            int low = 0;
+            int high = prices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid].startsAfter(second, nano)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        private static boolean isAfter(long second, int nano, long otherSecond, int otherNano) {
+            return second > otherSecond || (second == otherSecond && nano > otherNano);
+        }
+
+        private static long epochSecond(LocalDateTime dateTime) {
+            return dateTime.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        private static List<Price> toPrices(List<CompactPrice> compactPrices) {
+            List<Price> converted = new ArrayList<>(compactPrices.size());
+            for (CompactPrice compactPrice : compactPrices) {
+                converted.add(compactPrice.toPrice());
+            }
+            return converted;
+        }
+    }
+}
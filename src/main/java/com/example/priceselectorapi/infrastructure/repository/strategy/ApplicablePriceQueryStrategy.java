@@ -2,6 +2,7 @@ package com.example.priceselectorapi.infrastructure.repository.strategy;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -32,6 +33,18 @@ public class ApplicablePriceQueryStrategy implements PriceQueryStrategy {
         );
     }
 
+    /**
+     * Binds the three lookup parameters by name, without building the parameter map.
+     */
+    @Override
+    public GenericExecuteSpec bind(GenericExecuteSpec executeSpec, LocalDateTime applicationDate,
+                                   Long productId, Integer brandId) {
+        return executeSpec
+                .bind("applicationDate", applicationDate)
+                .bind("productId", productId)
+                .bind("brandId", brandId);
+    }
+
     @Override
     public String getStrategyName() {
         return "applicablePriceQueryStrategy";
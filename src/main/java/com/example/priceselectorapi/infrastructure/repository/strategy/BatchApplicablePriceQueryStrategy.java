@@ -0,0 +1,78 @@
+package com.example.priceselectorapi.infrastructure.repository.strategy;
+
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Expands the batch query template with one OR'ed predicate per lookup key, each bound
+ * to its own indexed parameters. Generated statements are kept per key count, so batches
+ * of the same size reuse the same SQL text.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchApplicablePriceQueryStrategy implements MultiKeyPriceQueryStrategy {
+
+    private static final String KEY_PREDICATES_PLACEHOLDER = "{keyPredicates}";
+
+    private final Map<String, String> sqlQueries;
+    private final Map<Integer, String> queriesByKeyCount = new ConcurrentHashMap<>();
+
+    @Override
+    public String getQuery() {
+        return getQuery(1);
+    }
+
+    @Override
+    public String getQuery(int keyCount) {
+        if (keyCount < 1) {
+            throw new IllegalArgumentException("Batch query requires at least one key");
+        }
+        return queriesByKeyCount.computeIfAbsent(keyCount, this::buildQuery);
+    }
+
+    @Override
+    public Map<String, Object> getParameters(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        return getParameters(List.of(PriceLookupKey.of(applicationDate, productId, brandId)));
+    }
+
+    @Override
+    public Map<String, Object> getParameters(List<PriceLookupKey> keys) {
+        log.debug("Creating batch query parameters for {} keys", keys.size());
+        
+        Map<String, Object> parameters = new HashMap<>(keys.size() * 4);
+        for (int i = 0; i < keys.size(); i++) {
+            PriceLookupKey key = keys.get(i);
+            parameters.put("applicationDate" + i, key.getApplicationDate());
+            parameters.put("productId" + i, key.getProductId());
+            parameters.put("brandId" + i, key.getBrandId());
+        }
+        return parameters;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "batchApplicablePriceQueryStrategy";
+    }
+
+    private String buildQuery(int keyCount) {
+        String predicates = IntStream.range(0, keyCount)
+                .mapToObj(i -> String.format(
+                        "(brand_id = :brandId%1$d AND product_id = :productId%1$d"
+                                + " AND start_date <= :applicationDate%1$d AND end_date >= :applicationDate%1$d)", i))
+                .collect(Collectors.joining(" OR "));
+        
+        log.debug("Built batch applicable price query for {} keys", keyCount);
+        return sqlQueries.get("findApplicablePricesBatch").replace(KEY_PREDICATES_PLACEHOLDER, predicates);
+    }
+}
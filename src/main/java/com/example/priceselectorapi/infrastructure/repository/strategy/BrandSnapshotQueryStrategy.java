@@ -0,0 +1,42 @@
+package com.example.priceselectorapi.infrastructure.repository.strategy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Applicable prices of every product of a brand, ordered by product and then by the
+ * priority rule, so the first row of each product is its winner. The product id is
+ * not part of the query.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BrandSnapshotQueryStrategy implements PriceQueryStrategy {
+
+    private final Map<String, String> sqlQueries;
+
+    @Override
+    public String getQuery() {
+        log.debug("Getting brand snapshot query");
+        return sqlQueries.get("findBrandSnapshot");
+    }
+
+    @Override
+    public Map<String, Object> getParameters(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        log.debug("Creating snapshot query parameters for brandId: {}, date: {}", brandId, applicationDate);
+        
+        return Map.of(
+            "applicationDate", applicationDate,
+            "brandId", brandId
+        );
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "brandSnapshotQueryStrategy";
+    }
+}
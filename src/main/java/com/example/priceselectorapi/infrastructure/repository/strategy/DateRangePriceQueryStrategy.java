@@ -0,0 +1,12 @@
+package com.example.priceselectorapi.infrastructure.repository.strategy;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * {@link PriceQueryStrategy} selecting the prices valid at any instant of a date range.
+ */
+public interface DateRangePriceQueryStrategy extends PriceQueryStrategy {
+    
+    Map<String, Object> getParameters(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId);
+}
@@ -0,0 +1,49 @@
+package com.example.priceselectorapi.infrastructure.repository.strategy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Selects every price of a product overlapping a date range, ordered by start date, in one pass.
+ * A single application date is the degenerate range that starts and ends at that instant.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DateRangeQueryStrategy implements DateRangePriceQueryStrategy {
+
+    private final Map<String, String> sqlQueries;
+
+    @Override
+    public String getQuery() {
+        log.debug("Getting date range price query");
+        return sqlQueries.get("findPricesInRange");
+    }
+
+    @Override
+    public Map<String, Object> getParameters(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        return getParameters(applicationDate, applicationDate, productId, brandId);
+    }
+
+    @Override
+    public Map<String, Object> getParameters(LocalDateTime from, LocalDateTime to, Long productId, Integer brandId) {
+        log.debug("Creating date range query parameters for productId: {}, brandId: {}, from: {}, to: {}", 
+                 productId, brandId, from, to);
+        
+        return Map.of(
+            "fromDate", from,
+            "toDate", to,
+            "productId", productId,
+            "brandId", brandId
+        );
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "dateRangeQueryStrategy";
+    }
+}
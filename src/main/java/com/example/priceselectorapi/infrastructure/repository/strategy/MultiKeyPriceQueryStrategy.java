@@ -0,0 +1,16 @@
+package com.example.priceselectorapi.infrastructure.repository.strategy;
+
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link PriceQueryStrategy} able to resolve several lookup keys with one statement.
+ */
+public interface MultiKeyPriceQueryStrategy extends PriceQueryStrategy {
+    
+    String getQuery(int keyCount);
+    
+    Map<String, Object> getParameters(List<PriceLookupKey> keys);
+}
@@ -1,13 +1,27 @@
 package com.example.priceselectorapi.infrastructure.repository.strategy;
 
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+
 import java.time.LocalDateTime;
 import java.util.Map;
 
 public interface PriceQueryStrategy {
-    
+
     String getQuery();
-    
+
     Map<String, Object> getParameters(LocalDateTime applicationDate, Long productId, Integer brandId);
-    
+
     String getStrategyName();
-} 
\ No newline at end of file
+
+    /**
+     * Binds the lookup parameters to a statement of {@link #getQuery()}. Strategies with a fixed
+     * parameter set override it to bind them directly, without building the parameter map.
+     */
+    default GenericExecuteSpec bind(GenericExecuteSpec executeSpec, LocalDateTime applicationDate,
+                                    Long productId, Integer brandId) {
+        for (Map.Entry<String, Object> param : getParameters(applicationDate, productId, brandId).entrySet()) {
+            executeSpec = executeSpec.bind(param.getKey(), param.getValue());
+        }
+        return executeSpec;
+    }
+}
\ No newline at end of file
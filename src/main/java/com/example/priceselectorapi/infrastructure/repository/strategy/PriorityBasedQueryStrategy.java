@@ -0,0 +1,56 @@
+package com.example.priceselectorapi.infrastructure.repository.strategy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Returns only the winning row: the database orders the applicable rows by priority, then
+ * most recent start date, then highest id, and stops after the first one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriorityBasedQueryStrategy implements PriceQueryStrategy {
+
+    private final Map<String, String> sqlQueries;
+
+    @Override
+    public String getQuery() {
+        log.debug("Getting top priority price query");
+        return sqlQueries.get("findTopPriorityPrice");
+    }
+
+    @Override
+    public Map<String, Object> getParameters(LocalDateTime applicationDate, Long productId, Integer brandId) {
+        log.debug("Creating query parameters for productId: {}, brandId: {}, date: {}", 
+                 productId, brandId, applicationDate);
+        
+        return Map.of(
+            "applicationDate", applicationDate,
+            "productId", productId,
+            "brandId", brandId
+        );
+    }
+
+    /**
+     * Binds the three lookup parameters by name, without building the parameter map.
+     */
+    @Override
+    public GenericExecuteSpec bind(GenericExecuteSpec executeSpec, LocalDateTime applicationDate,
+                                   Long productId, Integer brandId) {
+        return executeSpec
+                .bind("applicationDate", applicationDate)
+                .bind("productId", productId)
+                .bind("brandId", brandId);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "priorityBasedQueryStrategy";
+    }
+}
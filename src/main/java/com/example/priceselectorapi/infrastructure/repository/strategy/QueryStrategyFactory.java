@@ -24,6 +24,19 @@ public class QueryStrategyFactory {
                 });
     }
 
+    /**
+     * Returns the strategy of the given type as one of the {@link PriceQueryStrategy} extensions,
+     * such as {@link MultiKeyPriceQueryStrategy}.
+     */
+    public <S extends PriceQueryStrategy> S getStrategy(QueryType queryType, Class<S> strategyType) {
+        PriceQueryStrategy strategy = getStrategy(queryType);
+        if (!strategyType.isInstance(strategy)) {
+            log.error("Query strategy for type {} is not a {}", queryType, strategyType.getSimpleName());
+            throw new IllegalArgumentException("Query type " + queryType + " does not support " + strategyType.getSimpleName());
+        }
+        return strategyType.cast(strategy);
+    }
+
     public PriceQueryStrategy getDefaultStrategy() {
         log.debug("Getting default query strategy");
         return getStrategy(QueryType.APPLICABLE_PRICE);
@@ -32,7 +45,9 @@ public class QueryStrategyFactory {
     public enum QueryType {
         APPLICABLE_PRICE("applicablePriceQueryStrategy"),
         PRIORITY_BASED("priorityBasedQueryStrategy"),
-        DATE_RANGE("dateRangeQueryStrategy");
+        DATE_RANGE("dateRangeQueryStrategy"),
+        BATCH_APPLICABLE_PRICE("batchApplicablePriceQueryStrategy"),
+        BRAND_SNAPSHOT("brandSnapshotQueryStrategy");
 
         private final String strategyName;
 
@@ -0,0 +1,91 @@
+package com.example.priceselectorapi.infrastructure.web.caching;
+
+import com.example.priceselectorapi.domain.model.Price;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+
+/**
+ * HTTP caching of price responses. The strong ETag is derived from the winning price row, so it
+ * changes whenever any field of the response does. {@code Cache-Control: max-age} is the time left,
+ * by the catalog clock, until the next price boundary of the product, the end of the winner's
+ * timeline segment, never more than {@code app.web.http-caching.max-age}. Without an in-memory
+ * timeline the winner's own end date bounds it instead. A segment that has already ended is settled
+ * history and gets the full {@code max-age}, like the price caches do.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceHttpCaching {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    @Value("${app.web.http-caching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.web.http-caching.max-age:PT1H}")
+    private Duration maxAge = Duration.ofHours(1);
+
+    private final Clock clock;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String eTag(Price price) {
+        CRC32 checksum = new CRC32();
+        checksum.update(String.join("|",
+                String.valueOf(price.getProductId()),
+                String.valueOf(price.getBrandId()),
+                String.valueOf(price.getPriceList()),
+                String.valueOf(price.getPriority()),
+                String.valueOf(price.getStartDate()),
+                String.valueOf(price.getEndDate()),
+                price.getPriceAmount() != null ? price.getPriceAmount().toPlainString() : "null",
+                String.valueOf(price.getCurr())).getBytes(StandardCharsets.UTF_8));
+        return "\"" + price.getId() + "-" + Long.toHexString(checksum.getValue()) + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the ETag. Comparison is weak, as RFC 9110
+     * requires for {@code If-None-Match}.
+     */
+    public boolean isNotModified(@Nullable String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(ANY) || stripWeak(tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CacheControl cacheControl(Price price, @Nullable LocalDateTime segmentEnd) {
+        return CacheControl.maxAge(maxAgeOf(price, segmentEnd));
+    }
+
+    Duration maxAgeOf(Price price, @Nullable LocalDateTime segmentEnd) {
+        LocalDateTime boundary = segmentEnd != null ? segmentEnd : price.getEndDate();
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (boundary == null || boundary.isBefore(now)) {
+            return maxAge;
+        }
+        Duration remaining = Duration.between(now, boundary);
+        return remaining.compareTo(maxAge) > 0 ? maxAge : remaining;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
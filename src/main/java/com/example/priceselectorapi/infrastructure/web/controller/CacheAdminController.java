@@ -0,0 +1,86 @@
+package com.example.priceselectorapi.infrastructure.web.controller;
+
+import com.example.priceselectorapi.application.dto.CacheEvictionResponseDTO;
+import com.example.priceselectorapi.application.service.PriceCacheInvalidationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Cache administration, only registered with {@code app.admin.cache.enabled}. Every request must
+ * send the {@code app.admin.cache.token} in the {@value #TOKEN_HEADER} header; the application
+ * does not start when the endpoint is enabled without a token.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@RequiredArgsConstructor
+@Validated
+@ConditionalOnProperty(name = "app.admin.cache.enabled", havingValue = "true")
+@Slf4j
+public class CacheAdminController {
+
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final PriceCacheInvalidationService priceCacheInvalidationService;
+
+    @Value("${app.admin.cache.token:}")
+    private String token;
+
+    @PostConstruct
+    public void init() {
+        if (!StringUtils.hasText(token)) {
+            throw new IllegalStateException("app.admin.cache.token must be set when app.admin.cache.enabled is true");
+        }
+    }
+
+    /**
+     * Evicts the cached prices of one product, or of the whole brand when no product is given.
+     */
+    @DeleteMapping("/prices")
+    public Mono<ResponseEntity<CacheEvictionResponseDTO>> evictPrices(
+            @RequestParam("brandId") @NotNull @Min(1) Integer brandId,
+            @RequestParam(value = "productId", required = false) @Min(1) Long productId,
+            @RequestHeader(value = TOKEN_HEADER, required = false) String requestToken) {
+
+        if (!isAuthorized(requestToken)) {
+            log.warn("Rejected cache eviction for brandId: {}, productId: {} without a valid admin token",
+                    brandId, productId);
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        Mono<Integer> evicted = productId != null
+                ? priceCacheInvalidationService.invalidateProduct(brandId, productId)
+                : priceCacheInvalidationService.invalidateBrand(brandId);
+
+        return evicted
+                .map(evictedEntries -> ResponseEntity.ok(CacheEvictionResponseDTO.builder()
+                        .brandId(brandId)
+                        .productId(productId)
+                        .evictedEntries(evictedEntries)
+                        .build()))
+                .doOnSuccess(response -> log.info("Evicted {} cached prices for brandId: {}, productId: {}",
+                        response.getBody().getEvictedEntries(), brandId, productId));
+    }
+
+    private boolean isAuthorized(String requestToken) {
+        return requestToken != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), requestToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
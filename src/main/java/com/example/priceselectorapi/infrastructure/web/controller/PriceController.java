@@ -1,53 +1,232 @@
 package com.example.priceselectorapi.infrastructure.web.controller;
 
+import com.example.priceselectorapi.application.dto.BatchPriceQueryRequestDTO;
+import com.example.priceselectorapi.application.dto.BatchPriceQueryResponseDTO;
 import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import com.example.priceselectorapi.application.dto.PriceTimelineResponseDTO;
 import com.example.priceselectorapi.application.mapper.PriceMapper;
+import com.example.priceselectorapi.application.metrics.RequestStage;
+import com.example.priceselectorapi.application.metrics.StageTimings;
 import com.example.priceselectorapi.application.service.PriceQueryService;
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import com.example.priceselectorapi.infrastructure.web.caching.PriceHttpCaching;
+import com.example.priceselectorapi.infrastructure.web.encoding.EncodedPriceResponseCache;
+import com.example.priceselectorapi.infrastructure.web.handler.DatabaseErrorHandler;
 import com.example.priceselectorapi.infrastructure.web.handler.ErrorHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/prices") 
-@RequiredArgsConstructor
 @Validated
 @Slf4j
 public class PriceController {
 
+    /**
+     * Set on a lookup answered with the last known price because the database could not be used.
+     */
+    public static final String STALE_HEADER = "X-Price-Stale";
+
     private final PriceQueryService priceQueryService;
     private final PriceMapper priceMapper;
     private final List<ErrorHandler<? extends Throwable>> errorHandlers;
+    private final EncodedPriceResponseCache encodedResponses;
+    private final PriceHttpCaching httpCaching;
+    private final Timer dtoMappings;
+
+    public PriceController(PriceQueryService priceQueryService, PriceMapper priceMapper,
+                           List<ErrorHandler<? extends Throwable>> errorHandlers,
+                           EncodedPriceResponseCache encodedResponses, PriceHttpCaching httpCaching,
+                           MeterRegistry meterRegistry) {
+        this.priceQueryService = priceQueryService;
+        this.priceMapper = priceMapper;
+        this.errorHandlers = errorHandlers;
+        this.encodedResponses = encodedResponses;
+        this.httpCaching = httpCaching;
+        this.dtoMappings = RequestStage.DTO_MAPPING.timer(meterRegistry);
+    }
 
+    /**
+     * Answers with a {@link PriceResponseDTO}, or with its pre-encoded JSON when
+     * {@code app.web.encoded-responses.enabled} is set. With {@code app.web.http-caching.enabled}
+     * found prices carry an ETag and a {@code Cache-Control} header, and a matching
+     * {@code If-None-Match} is answered with 304 Not Modified without a body, straight from the
+     * cache when it holds the price.
+     */
     @GetMapping("/query")
-    public Mono<ResponseEntity<PriceResponseDTO>> getApplicablePrice(
+    public Mono<ResponseEntity<?>> getApplicablePrice(
             @RequestParam("applicationDate") @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime applicationDate,
             @RequestParam("productId") @NotNull @Min(1) Long productId,
-            @RequestParam("brandId") @NotNull @Min(1) Integer brandId) {
+            @RequestParam("brandId") @NotNull @Min(1) Integer brandId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.debug("Querying price for productId: {}, brandId: {}, date: {}", productId, brandId, applicationDate);
 
-        return priceQueryService.findApplicablePrice(applicationDate, productId, brandId)
-                .map(priceMapper::toResponseDTO)
-                .map(ResponseEntity::ok)
+        return cachedForRevalidation(applicationDate, productId, brandId, ifNoneMatch)
+                .switchIfEmpty(Mono.defer(() -> priceQueryService.findApplicablePrice(applicationDate, productId, brandId)))
+                .<ResponseEntity<?>>transformDeferredContextual((price, context) -> price.map(found ->
+                        toResponse(found, applicationDate, ifNoneMatch, StageTimings.from(context))))
                 .defaultIfEmpty(ResponseEntity.notFound().build())
-                .onErrorResume(this::handleError)
+                .onErrorResume(error -> lastKnownPrice(error, applicationDate, productId, brandId)
+                        .switchIfEmpty(Mono.defer(() -> handleError(error))))
                 .doOnSuccess(response -> log.debug("Price query completed with status: {}", 
                     response.getStatusCode()));
     }
     
+    /**
+     * Resolves several price lookups in one call. Results follow the order of the request items,
+     * and items without an applicable price are reported as NOT_FOUND instead of failing the batch.
+     */
+    @PostMapping("/query/batch")
+    public Mono<ResponseEntity<BatchPriceQueryResponseDTO>> getApplicablePrices(
+            @RequestBody @Valid BatchPriceQueryRequestDTO request) {
+
+        List<PriceLookupKey> keys = request.getItems().stream()
+                .map(item -> PriceLookupKey.of(item.getApplicationDate(), item.getProductId(), item.getBrandId()))
+                .toList();
+
+        log.debug("Querying prices for a batch of {} items", keys.size());
+
+        return priceQueryService.findApplicablePrices(keys)
+                .map(prices -> dtoMappings.record(() -> keys.stream()
+                        .map(key -> priceMapper.toBatchResultDTO(key, prices.get(key)))
+                        .toList()))
+                .map(results -> ResponseEntity.ok(BatchPriceQueryResponseDTO.builder().results(results).build()))
+                .onErrorResume(error -> handleError(error)
+                        .map(response -> ResponseEntity.status(response.getStatusCode()).<BatchPriceQueryResponseDTO>build()))
+                .doOnSuccess(response -> log.debug("Batch price query completed with status: {}",
+                    response.getStatusCode()));
+    }
+    
+    /**
+     * Returns the applicable price between two dates as consecutive segments, each with the
+     * price that wins throughout it.
+     */
+    @GetMapping("/timeline")
+    public Mono<ResponseEntity<PriceTimelineResponseDTO>> getPriceTimeline(
+            @RequestParam("from") @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam("productId") @NotNull @Min(1) Long productId,
+            @RequestParam("brandId") @NotNull @Min(1) Integer brandId) {
+
+        log.debug("Querying price timeline for productId: {}, brandId: {}, from: {}, to: {}", productId, brandId, from, to);
+
+        return priceQueryService.findPriceTimeline(from, to, productId, brandId)
+                .map(segments -> priceMapper.toTimelineResponseDTO(from, to, productId, brandId, segments))
+                .map(ResponseEntity::ok)
+                .onErrorResume(error -> handleError(error)
+                        .map(response -> ResponseEntity.status(response.getStatusCode()).<PriceTimelineResponseDTO>build()))
+                .doOnSuccess(response -> log.debug("Price timeline query completed with status: {}",
+                    response.getStatusCode()));
+    }
+    
+    /**
+     * Streams the applicable price of every product of a brand as newline-delimited JSON.
+     * Rows are read from the database only as fast as the client consumes them.
+     */
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PriceResponseDTO> streamApplicablePrices(
+            @RequestParam("applicationDate") @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime applicationDate,
+            @RequestParam("brandId") @NotNull @Min(1) Integer brandId) {
+
+        log.debug("Streaming price snapshot for brandId: {}, date: {}", brandId, applicationDate);
+
+        return priceQueryService.streamApplicablePrices(applicationDate, brandId)
+                .map(priceMapper::toResponseDTO)
+                .doOnError(error -> log.error("Price snapshot stream failed for brandId: {}", brandId, error));
+    }
+    
+    /**
+     * Takes the price of a conditional lookup straight from the cache, so a matching
+     * {@code If-None-Match} is answered without going through the lookup; the same price also
+     * builds the body when the ETag has changed. Empty when the cache does not hold it.
+     */
+    private Mono<Price> cachedForRevalidation(LocalDateTime applicationDate, Long productId,
+                                              Integer brandId, @Nullable String ifNoneMatch) {
+        if (!httpCaching.isEnabled() || ifNoneMatch == null) {
+            return Mono.empty();
+        }
+        return priceQueryService.findCachedPrice(applicationDate, productId, brandId);
+    }
+
+    /**
+     * Building the body is timed as the dto-mapping stage either way; with pre-encoded responses
+     * it only maps and serializes the first time a price is served. Not modified responses skip it.
+     */
+    private ResponseEntity<?> toResponse(Price price, LocalDateTime applicationDate, @Nullable String ifNoneMatch,
+                                         StageTimings timings) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (httpCaching.isEnabled()) {
+            String eTag = httpCaching.eTag(price);
+            CacheControl cacheControl = cacheControl(price, applicationDate);
+            if (httpCaching.isNotModified(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+            }
+            ok.eTag(eTag).cacheControl(cacheControl);
+        }
+
+        long startedAt = System.nanoTime();
+        ResponseEntity<?> response = encodedResponses.isEnabled()
+                ? ok.contentType(MediaType.APPLICATION_JSON).body(encodedResponses.encode(price))
+                : ok.body(priceMapper.toResponseDTO(price));
+        long elapsed = System.nanoTime() - startedAt;
+        dtoMappings.record(elapsed, TimeUnit.NANOSECONDS);
+        if (timings != null) {
+            timings.record(RequestStage.DTO_MAPPING, elapsed);
+        }
+        return response;
+    }
+
+    private CacheControl cacheControl(Price price, LocalDateTime applicationDate) {
+        return httpCaching.cacheControl(price, priceQueryService
+                .findSegmentEnd(applicationDate, price.getProductId(), price.getBrandId())
+                .orElse(null));
+    }
+
+    /**
+     * Falls back to the last known price while the database is unavailable; other errors, and
+     * lookups without a last known price, go on to the error handlers.
+     */
+    private Mono<ResponseEntity<PriceResponseDTO>> lastKnownPrice(Throwable error, LocalDateTime applicationDate,
+                                                                  Long productId, Integer brandId) {
+        if (!DatabaseErrorHandler.isDatabaseUnavailable(error)) {
+            return Mono.empty();
+        }
+        return priceQueryService.findLastKnownPrice(applicationDate, productId, brandId)
+                .map(priceMapper::toResponseDTO)
+                .map(price -> {
+                    log.warn("Serving stale price for productId: {}, brandId: {} after: {}",
+                            productId, brandId, error.toString());
+                    return ResponseEntity.ok().header(STALE_HEADER, "true").body(price);
+                });
+    }
+
     @SuppressWarnings("unchecked")
     private Mono<ResponseEntity<PriceResponseDTO>> handleError(Throwable throwable) {
         log.debug("Handling error with chain of responsibility: {}", throwable.getClass().getSimpleName());
@@ -0,0 +1,83 @@
+package com.example.priceselectorapi.infrastructure.web.encoding;
+
+import com.example.priceselectorapi.application.mapper.PriceMapper;
+import com.example.priceselectorapi.domain.model.Price;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * JSON body of the price response of each resolved {@link Price}, encoded once and then served as
+ * is, so repeated hits skip both {@link PriceMapper#toResponseDTO} and Jackson. The bytes are
+ * written by the ObjectMapper of the WebFlux JSON codec, so they match what the codec would write
+ * for the DTO.
+ * <p>
+ * Entries are keyed by the identity of the price and hold it weakly: they live as long as the
+ * price stays in one of the price caches, up to {@code app.web.encoded-responses.max-size}.
+ * Returned arrays are shared and must not be modified.
+ */
+@Component
+@Slf4j
+public class EncodedPriceResponseCache {
+
+    private final PriceMapper priceMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.web.encoded-responses.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.web.encoded-responses.max-size:10000}")
+    private long maxSize = 10_000;
+
+    private Cache<Price, byte[]> encodedResponses;
+
+    public EncodedPriceResponseCache(PriceMapper priceMapper, ServerCodecConfigurer serverCodecConfigurer) {
+        this.priceMapper = priceMapper;
+        this.objectMapper = jsonCodecObjectMapper(serverCodecConfigurer);
+    }
+
+    @PostConstruct
+    public void init() {
+        encodedResponses = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maxSize)
+                .build();
+        if (enabled) {
+            log.info("Serving price responses from pre-encoded JSON, up to {} entries", maxSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public byte[] encode(Price price) {
+        return encodedResponses.get(price, this::serialize);
+    }
+
+    private byte[] serialize(Price price) {
+        try {
+            return objectMapper.writeValueAsBytes(priceMapper.toResponseDTO(price));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode price response for price: " + price.getId(), e);
+        }
+    }
+
+    private static ObjectMapper jsonCodecObjectMapper(ServerCodecConfigurer serverCodecConfigurer) {
+        return serverCodecConfigurer.getWriters().stream()
+                .filter(EncoderHttpMessageWriter.class::isInstance)
+                .map(writer -> ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .filter(Jackson2JsonEncoder.class::isInstance)
+                .map(encoder -> ((Jackson2JsonEncoder) encoder).getObjectMapper())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No Jackson JSON encoder configured for WebFlux"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.priceselectorapi.infrastructure.web.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Records the time from JVM start to the first successfully served price request, the
+ * time-to-first-hot-request of a new instance. Logged once and exposed as the
+ * {@code price.startup.first.request} gauge, which reads NaN until that request completes.
+ * Registered with {@code app.repository.type=mapped} only, the one repository that starts from
+ * a warm-start snapshot.
+ */
+@Component
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "mapped")
+@Slf4j
+public class FirstPriceRequestFilter implements WebFilter {
+
+    private static final String PRICES_PATH = "/api/v1/prices";
+    private static final long NOT_SERVED = -1;
+
+    private final AtomicLong firstRequestMillis = new AtomicLong(NOT_SERVED);
+    private final LongSupplier uptimeMillis;
+
+    @Autowired
+    public FirstPriceRequestFilter(MeterRegistry meterRegistry) {
+        this(meterRegistry, () -> ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    FirstPriceRequestFilter(MeterRegistry meterRegistry, LongSupplier uptimeMillis) {
+        this.uptimeMillis = uptimeMillis;
+        TimeGauge.builder("price.startup.first.request", firstRequestMillis, TimeUnit.MILLISECONDS,
+                        millis -> millis.get() == NOT_SERVED ? Double.NaN : millis.get())
+                .description("Time from JVM start to the first successfully served price request")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (firstRequestMillis.get() != NOT_SERVED
+                || !exchange.getRequest().getPath().value().startsWith(PRICES_PATH)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && !status.is2xxSuccessful()) {
+                        return;
+                    }
+                    long uptime = uptimeMillis.getAsLong();
+                    if (firstRequestMillis.compareAndSet(NOT_SERVED, uptime)) {
+                        log.info("First price request served {} ms after JVM start", uptime);
+                    }
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.priceselectorapi.infrastructure.web.filter;
+
+import com.example.priceselectorapi.application.metrics.StageTimings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers price requests with a {@code Server-Timing} header breaking their time down by
+ * {@link com.example.priceselectorapi.application.metrics.RequestStage}, for example
+ * {@code cache;dur=0.021, db;dur=3.102, row-mapping;dur=0.048, dto-mapping;dur=0.012, total;dur=4.310}.
+ * The database stage includes its row mapping, and {@code total} runs until the response is
+ * committed, so it also covers JSON encoding.
+ * <p>
+ * Timings are collected for every price request with {@code app.server-timing.enabled}, or for
+ * requests sending the {@value #REQUEST_HEADER} header while
+ * {@code app.server-timing.request-header.enabled} is set. Other requests skip this filter
+ * without touching their Reactor {@code Context}.
+ */
+@Component
+public class ServerTimingFilter implements WebFilter {
+
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    public static final String RESPONSE_HEADER = "Server-Timing";
+
+    private static final String PRICES_PATH = "/api/v1/prices";
+
+    @Value("${app.server-timing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.server-timing.request-header.enabled:true}")
+    private boolean requestHeaderEnabled = true;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!isRequested(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        long startedAt = System.nanoTime();
+        StageTimings timings = new StageTimings();
+        exchange.getResponse().beforeCommit(() -> Mono.fromRunnable(() -> exchange.getResponse().getHeaders()
+                .set(RESPONSE_HEADER, timings.toServerTiming(System.nanoTime() - startedAt))));
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(StageTimings.class, timings));
+    }
+
+    private boolean isRequested(ServerWebExchange exchange) {
+        if (!enabled && !(requestHeaderEnabled && exchange.getRequest().getHeaders().containsKey(REQUEST_HEADER))) {
+            return false;
+        }
+        return exchange.getRequest().getPath().value().startsWith(PRICES_PATH);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.priceselectorapi.infrastructure.web.handler;
 
 import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.dao.DataAccessException;
@@ -9,18 +11,24 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Answers 503 when the database failed or was not called because the repository's circuit
+ * breaker is open, its bulkhead is full or the lookup timed out.
+ */
 @Component
 @Order(2)
 @Slf4j
-public class DatabaseErrorHandler implements ErrorHandler<DataAccessException> {
+public class DatabaseErrorHandler implements ErrorHandler<Exception> {
 
     @Override
     public boolean canHandle(Throwable throwable) {
-        return throwable instanceof DataAccessException;
+        return isDatabaseUnavailable(throwable);
     }
 
     @Override
-    public Mono<ResponseEntity<PriceResponseDTO>> handle(DataAccessException throwable) {
+    public Mono<ResponseEntity<PriceResponseDTO>> handle(Exception throwable) {
         log.error("Database error: {}", throwable.getMessage());
         return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
     }
@@ -29,4 +37,11 @@ public class DatabaseErrorHandler implements ErrorHandler<DataAccessException> {
     public int getOrder() {
         return 2;
     }
-} 
\ No newline at end of file
+
+    public static boolean isDatabaseUnavailable(Throwable throwable) {
+        return throwable instanceof DataAccessException ||
+               throwable instanceof CallNotPermittedException ||
+               throwable instanceof BulkheadFullException ||
+               throwable instanceof TimeoutException;
+    }
+}
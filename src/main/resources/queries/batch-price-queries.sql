@@ -0,0 +1,3 @@
+SELECT id, brand_id, start_date, end_date, price_list, product_id, priority, price_amount, curr FROM PRICES
+WHERE {keyPredicates}
+ORDER BY brand_id, product_id, priority DESC;
@@ -0,0 +1,3 @@
+SELECT id, brand_id, start_date, end_date, price_list, product_id, priority, price_amount, curr FROM PRICES
+WHERE brand_id = :brandId
+ORDER BY product_id, start_date;
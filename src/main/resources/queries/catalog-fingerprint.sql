@@ -0,0 +1,4 @@
+SELECT COUNT(*) AS price_count,
+       BIT_XOR_AGG(CAST(SUBSTRING(HASH('SHA-256', CONCAT_WS('|',
+               id, brand_id, product_id, price_list, priority, price_amount, start_date, end_date, curr)), 1, 8) AS BIGINT)) AS row_hash
+FROM PRICES;
@@ -0,0 +1,6 @@
+SELECT id, brand_id, start_date, end_date, price_list, product_id, priority, price_amount, curr FROM PRICES
+WHERE brand_id = :brandId 
+  AND product_id = :productId 
+  AND start_date <= :toDate 
+  AND end_date >= :fromDate 
+ORDER BY start_date;
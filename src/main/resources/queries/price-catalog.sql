@@ -0,0 +1,2 @@
+SELECT id, brand_id, start_date, end_date, price_list, product_id, priority, price_amount, curr FROM PRICES
+ORDER BY brand_id, product_id, start_date;
@@ -0,0 +1,7 @@
+SELECT id, brand_id, start_date, end_date, price_list, product_id, priority, price_amount, curr FROM PRICES
+WHERE brand_id = :brandId 
+  AND product_id = :productId 
+  AND start_date <= :applicationDate 
+  AND end_date >= :applicationDate 
+ORDER BY priority DESC, start_date DESC, id DESC
+LIMIT 1;
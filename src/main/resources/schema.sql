@@ -11,4 +11,9 @@ CREATE TABLE IF NOT EXISTS PRICES (
 );
 
 CREATE INDEX IF NOT EXISTS idx_prices_lookup 
-ON PRICES (brand_id, product_id, start_date, end_date, priority); 
\ No newline at end of file
+ON PRICES (brand_id, product_id, start_date, end_date, priority);
+
+-- Covering index for the priority-based top-1 lookup: rows come out in winner order
+-- and every selected column is read from the index
+CREATE INDEX IF NOT EXISTS idx_prices_priority_lookup
+ON PRICES (brand_id, product_id, priority DESC, start_date DESC, id DESC, end_date, price_list, price_amount, curr);
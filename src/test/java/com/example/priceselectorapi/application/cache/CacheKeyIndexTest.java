@@ -0,0 +1,71 @@
+package com.example.priceselectorapi.application.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheKeyIndexTest {
+
+    private final CacheKeyIndex cacheKeyIndex = new CacheKeyIndex(new PriceCacheKeyGenerator());
+
+    @Test
+    void register_shouldIndexKeysByProductAndBrand() {
+        cacheKeyIndex.register("prices", "2020-06-14T10:00_35455_1");
+        cacheKeyIndex.register("prices", "2020-06-14T16:00_35455_1");
+        cacheKeyIndex.register("prices", "2020-06-14T10:00_35456_1");
+        cacheKeyIndex.register("prices", "2020-06-14T10:00_35455_2");
+
+        assertThat(cacheKeyIndex.keysOfProduct(1, 35455L))
+                .containsExactlyInAnyOrder("2020-06-14T10:00_35455_1", "2020-06-14T16:00_35455_1");
+        assertThat(cacheKeyIndex.keysOfBrand(1)).hasSize(3);
+        assertThat(cacheKeyIndex.keysOfProduct(3, 35455L)).isEmpty();
+    }
+
+    @Test
+    void unregister_shouldKeepKeyUntilEveryCacheDroppedIt() {
+        String key = "2020-06-14T10:00_35455_1";
+        cacheKeyIndex.register("prices", key);
+        cacheKeyIndex.register("prices-stale", key);
+
+        cacheKeyIndex.unregister("prices", key);
+        assertThat(cacheKeyIndex.keysOfProduct(1, 35455L)).containsExactly(key);
+
+        cacheKeyIndex.unregister("prices-stale", key);
+        assertThat(cacheKeyIndex.keysOfProduct(1, 35455L)).isEmpty();
+        assertThat(cacheKeyIndex.size()).isZero();
+    }
+
+    @Test
+    void register_shouldBeIdempotentPerCache() {
+        String key = "2020-06-14T10:00_35455_1";
+        cacheKeyIndex.register("prices", key);
+        cacheKeyIndex.register("prices", key);
+
+        cacheKeyIndex.unregister("prices", key);
+
+        assertThat(cacheKeyIndex.size()).isZero();
+    }
+
+    @Test
+    void unregisterFromEveryCache_shouldDropKeyAtOnce() {
+        String key = "2020-06-14T10:00_35455_1";
+        cacheKeyIndex.register("prices", key);
+        cacheKeyIndex.register("prices-negative", key);
+        cacheKeyIndex.register("prices", "2020-06-14T16:00_35455_1");
+
+        cacheKeyIndex.unregister(key);
+
+        assertThat(cacheKeyIndex.keysOfProduct(1, 35455L)).containsExactly("2020-06-14T16:00_35455_1");
+
+        cacheKeyIndex.clear();
+        assertThat(cacheKeyIndex.size()).isZero();
+    }
+
+    @Test
+    void register_shouldIgnoreKeysThatCannotBeParsed() {
+        cacheKeyIndex.register("prices", "not-a-price-key");
+        cacheKeyIndex.unregister("prices", "not-a-price-key");
+
+        assertThat(cacheKeyIndex.size()).isZero();
+    }
+}
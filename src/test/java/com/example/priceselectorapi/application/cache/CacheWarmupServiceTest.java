@@ -0,0 +1,115 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.port.PriceQueryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    private static final String HOT_KEY = "2020-06-14T16:00_35455_1";
+    private static final String WARM_KEY = "2020-06-14T10:00_35455_1";
+
+    @Mock
+    private CacheStrategy<Object> cacheStrategy;
+
+    @Mock
+    private PriceQueryPort priceQueryPort;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private CacheWarmupService cacheWarmupService;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("hot-keys.txt");
+        cacheWarmupService = new CacheWarmupService(cacheStrategy, new PriceCacheKeyGenerator(), priceQueryPort);
+        ReflectionTestUtils.setField(cacheWarmupService, "file", file);
+    }
+
+    @Test
+    void init_whenTopKeysExceedHalfTheCache_shouldFail() {
+        cacheWarmupService.init();
+
+        ReflectionTestUtils.setField(cacheWarmupService, "topKeys", 501);
+
+        assertThatIllegalStateException().isThrownBy(cacheWarmupService::init);
+    }
+
+    @Test
+    void saveHotKeys_shouldWriteHottestKeysInOrder() throws IOException {
+        when(cacheStrategy.hottestKeys(500)).thenReturn(List.of(HOT_KEY, WARM_KEY));
+
+        cacheWarmupService.saveHotKeys();
+
+        assertThat(Files.readAllLines(file)).containsExactly(HOT_KEY, WARM_KEY);
+    }
+
+    @Test
+    void saveHotKeys_whenCacheIsEmpty_shouldKeepPreviousFile() throws IOException {
+        Files.write(file, List.of(HOT_KEY));
+        when(cacheStrategy.hottestKeys(500)).thenReturn(List.of());
+
+        cacheWarmupService.saveHotKeys();
+
+        assertThat(Files.readAllLines(file)).containsExactly(HOT_KEY);
+    }
+
+    @Test
+    void warmUp_shouldReplaySavedKeysAndSkipFailures() throws IOException {
+        Files.write(file, List.of(HOT_KEY, "not-a-key", WARM_KEY, HOT_KEY));
+        when(priceQueryPort.findApplicablePrice(eq(LocalDateTime.parse("2020-06-14T16:00:00")), eq(35455L), eq(1)))
+                .thenReturn(Mono.just(Price.builder().priceList(2).build()));
+        when(priceQueryPort.findApplicablePrice(eq(LocalDateTime.parse("2020-06-14T10:00:00")), eq(35455L), eq(1)))
+                .thenReturn(Mono.error(new IllegalStateException("database unavailable")));
+
+        StepVerifier.create(cacheWarmupService.warmUp())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(priceQueryPort, times(2)).findApplicablePrice(any(), any(), any());
+    }
+
+    @Test
+    void warmUp_shouldStopAtDeadline() throws IOException {
+        Files.write(file, List.of(HOT_KEY, WARM_KEY));
+        ReflectionTestUtils.setField(cacheWarmupService, "deadline", Duration.ofMillis(100));
+        when(priceQueryPort.findApplicablePrice(any(), any(), any())).thenReturn(Mono.never());
+
+        StepVerifier.create(cacheWarmupService.warmUp())
+                .expectNext(0)
+                .verifyComplete();
+    }
+
+    @Test
+    void warmUp_withoutSavedKeys_shouldReplayNothing() {
+        StepVerifier.create(cacheWarmupService.warmUp())
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(priceQueryPort);
+    }
+}
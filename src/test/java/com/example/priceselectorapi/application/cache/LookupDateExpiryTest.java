@@ -0,0 +1,94 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LookupDateExpiryTest {
+
+    private static final ZoneId CATALOG_ZONE = ZoneId.of("Europe/Madrid");
+    private static final LocalDateTime NOW = LocalDateTime.parse("2020-06-14T16:00:00");
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    private static final Duration SETTLED_TTL = Duration.ofHours(1);
+
+    private final PriceRepositoryPort priceRepositoryPort = mock(PriceRepositoryPort.class);
+    private final LookupDateExpiry expiry = new LookupDateExpiry(new PriceCacheKeyGenerator(), priceRepositoryPort,
+            DEFAULT_TTL, SETTLED_TTL, Clock.fixed(NOW.atZone(CATALOG_ZONE).toInstant(), CATALOG_ZONE));
+
+    @Test
+    void ttlOf_whenLookupIsOfPastMoment_shouldKeepSettledAnswer() {
+        assertThat(expiry.ttlOf("2020-06-14T15:59_35455_1", endingAt(NOW.plusMinutes(20)))).isEqualTo(SETTLED_TTL);
+        assertThat(expiry.ttlOf("2020-06-10T10:00_35455_1", endingAt(NOW.plusMinutes(20)))).isEqualTo(SETTLED_TTL);
+    }
+
+    @Test
+    void ttlOf_whenLookupIsOfNowOrLater_shouldKeepItUntilThePriceEnds() {
+        assertThat(expiry.ttlOf("2020-06-14T16:00_35455_1", endingAt(NOW.plusMinutes(20)))).isEqualTo(Duration.ofMinutes(20));
+        assertThat(expiry.ttlOf("2020-06-14T16:10_35455_1", endingAt(NOW.plusMinutes(20)))).isEqualTo(Duration.ofMinutes(20));
+    }
+
+    @Test
+    void ttlOf_whenPriceIsLongLived_shouldCapAtSettledTtl() {
+        assertThat(expiry.ttlOf("2020-06-14T16:00_35455_1", endingAt(NOW.plusMonths(6)))).isEqualTo(SETTLED_TTL);
+    }
+
+    @Test
+    void ttlOf_whenTimelineKnowsNextHigherPriorityStart_shouldExpireAtIt() {
+        when(priceRepositoryPort.findSegmentEnd(NOW, 35455L, 1)).thenReturn(Optional.of(NOW.plusMinutes(10)));
+
+        assertThat(expiry.ttlOf("2020-06-14T16:00_35455_1", endingAt(NOW.plusMonths(6)))).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void ttlOf_shouldCompareWithNowInCatalogZone() {
+        // 16:00 in Madrid is 14:00 UTC; a lookup of 15:00 is still ahead of a UTC clock
+        assertThat(expiry.ttlOf("2020-06-14T15:00_35455_1", endingAt(NOW.plusMinutes(20)))).isEqualTo(SETTLED_TTL);
+    }
+
+    @Test
+    void ttlOf_whenKeyIsNotLookupOrValueIsNotPrice_shouldUseDefaultTtl() {
+        assertThat(expiry.ttlOf("not-a-key", endingAt(NOW.plusMinutes(20)))).isEqualTo(DEFAULT_TTL);
+        assertThat(expiry.ttlOf("2020-06-14T16:00_35455_1", "value")).isEqualTo(DEFAULT_TTL);
+    }
+
+    @Test
+    void expireAfterUpdate_whenLookupIsSettled_shouldKeepRemainingTime() {
+        long remaining = Duration.ofMinutes(7).toNanos();
+
+        assertThat(expiry.expireAfterUpdate("2020-06-14T10:00_35455_1", endingAt(NOW.plusMinutes(20)), 0L, remaining))
+                .isEqualTo(remaining);
+        assertThat(expiry.expireAfterUpdate("2020-06-14T16:00_35455_1", endingAt(NOW.plusMinutes(20)), 0L, remaining))
+                .isEqualTo(Duration.ofMinutes(20).toNanos());
+    }
+
+    @Test
+    void expiry_shouldApplyPerEntryDurationsInCaffeine() {
+        Cache<Object, Object> cache = Caffeine.newBuilder().expireAfter(expiry).build();
+        cache.put("2020-06-14T16:00_35455_1", endingAt(NOW.plusMinutes(20)));
+        cache.put("2020-06-14T10:00_35455_1", endingAt(NOW.plusMinutes(20)));
+
+        assertThat(cache.policy().expireVariably().orElseThrow().getExpiresAfter("2020-06-14T16:00_35455_1").orElseThrow())
+                .isBetween(Duration.ofMinutes(19), Duration.ofMinutes(20));
+        assertThat(cache.policy().expireVariably().orElseThrow().getExpiresAfter("2020-06-14T10:00_35455_1").orElseThrow())
+                .isBetween(Duration.ofMinutes(59), SETTLED_TTL);
+    }
+
+    private static Price endingAt(LocalDateTime endDate) {
+        return PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+                LocalDateTime.parse("2020-06-14T00:00:00"), endDate, new BigDecimal("35.50"), "EUR");
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+
 import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,4 +50,22 @@ class PriceCacheKeyGeneratorTest {
 
         assertThat(result1).isEqualTo(result2);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void parseKey_shouldReverseGenerateKey() {
+        LocalDateTime applicationDate = LocalDateTime.of(2021, 12, 25, 23, 59, 59);
+
+        String key = cacheKeyGenerator.generateKey(applicationDate, 99999L, 999);
+
+        assertThat(cacheKeyGenerator.parseKey(key))
+                .contains(PriceLookupKey.of(applicationDate, 99999L, 999));
+    }
+
+    @Test
+    void parseKey_shouldRejectForeignKeys() {
+        assertThat(cacheKeyGenerator.parseKey("not-a-price-key")).isEmpty();
+        assertThat(cacheKeyGenerator.parseKey("_35455_1")).isEmpty();
+        assertThat(cacheKeyGenerator.parseKey("2020-06-14T10:00_abc_1")).isEmpty();
+        assertThat(cacheKeyGenerator.parseKey("yesterday_35455_1")).isEmpty();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.priceselectorapi.application.cache;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceCacheRefresherTest {
+
+    private static final LocalDateTime APPLICATION_DATE = LocalDateTime.parse("2020-06-14T16:00:00");
+    private static final Long PRODUCT_ID = 35455L;
+    private static final Integer BRAND_ID = 1;
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2020-06-14T12:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private PriceRepositoryPort priceRepositoryPort;
+
+    private final PriceCacheKeyGenerator cacheKeyGenerator = new PriceCacheKeyGenerator();
+    private final CacheKeyIndex cacheKeyIndex = new CacheKeyIndex(cacheKeyGenerator);
+    private final CacheEvictionFence evictionFence = new CacheEvictionFence(cacheKeyGenerator);
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("prices-stale");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private final String key = cacheKeyGenerator.generateKey(APPLICATION_DATE, PRODUCT_ID, BRAND_ID);
+
+    private LoadingCache<Object, Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        PriceCacheRefresher refresher = refresher();
+        cache = Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofMinutes(4))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .evictionListener((cacheKey, value, cause) -> cacheKeyIndex.unregister("prices", String.valueOf(cacheKey)))
+                .build(refresher);
+    }
+
+    @Test
+    void load_shouldRefuseToLoadMisses() {
+        assertThatThrownBy(() -> refresher().load(key)).isInstanceOf(UnsupportedOperationException.class);
+
+        assertThat(cache.getIfPresent(key)).isNull();
+        assertThat(cache.asMap()).isEmpty();
+        verifyNoInteractions(priceRepositoryPort);
+    }
+
+    @Test
+    void get_beforeRefreshInterval_shouldNotReload() {
+        put(PriceFactory.createPrice(1L, BRAND_ID, 2, PRODUCT_ID, 1,
+                "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"));
+        nanos.addAndGet(Duration.ofMinutes(3).toNanos());
+
+        cache.get(key);
+
+        verifyNoInteractions(priceRepositoryPort);
+    }
+
+    @Test
+    void get_afterRefreshInterval_shouldServeStaleValueAndReloadInBackground() {
+        Price stale = PriceFactory.createPrice(1L, BRAND_ID, 2, PRODUCT_ID, 1,
+                "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR");
+        Price fresh = PriceFactory.createPrice(1L, BRAND_ID, 2, PRODUCT_ID, 1,
+                "2020-06-14T15:00:00", "2020-06-14T18:30:00", "26.00", "EUR");
+        Sinks.One<Price> reload = Sinks.one();
+        put(stale);
+        when(priceRepositoryPort.findApplicablePrices(APPLICATION_DATE, PRODUCT_ID, BRAND_ID))
+                .thenReturn(reload.asMono().flux());
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        assertThat(cache.get(key)).isSameAs(stale);
+        assertThat(cache.get(key)).isSameAs(stale);
+        reload.tryEmitValue(fresh);
+
+        assertThat(cache.getIfPresent(key)).isSameAs(fresh);
+        assertThat(cacheManager.getCache("prices-stale").get(key).get()).isSameAs(fresh);
+        verify(priceRepositoryPort).findApplicablePrices(APPLICATION_DATE, PRODUCT_ID, BRAND_ID);
+        assertThat(cacheKeyIndex.keysOfProduct(BRAND_ID, PRODUCT_ID)).containsExactly(key);
+        assertThat(refreshes("success")).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_whenKeyIsEvictedDuringReload_shouldNotWriteStaleValue() {
+        Sinks.One<Price> reload = Sinks.one();
+        put(PriceFactory.createPrice(1L, BRAND_ID, 2, PRODUCT_ID, 1,
+                "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"));
+        when(priceRepositoryPort.findApplicablePrices(APPLICATION_DATE, PRODUCT_ID, BRAND_ID))
+                .thenReturn(reload.asMono().flux());
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        cache.get(key);
+        evictionFence.evictProduct(BRAND_ID, PRODUCT_ID);
+        cache.invalidate(key);
+        reload.tryEmitValue(PriceFactory.createPrice(1L, BRAND_ID, 2, PRODUCT_ID, 1,
+                "2020-06-14T15:00:00", "2020-06-14T18:30:00", "26.00", "EUR"));
+
+        assertThat(cache.getIfPresent(key)).isNull();
+        assertThat(cacheManager.getCache("prices-stale").get(key)).isNull();
+    }
+
+    @Test
+    void get_whenReloadFails_shouldKeepCachedValue() {
+        Price stale = PriceFactory.createPrice(1L, BRAND_ID, 2, PRODUCT_ID, 1,
+                "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR");
+        put(stale);
+        when(priceRepositoryPort.findApplicablePrices(APPLICATION_DATE, PRODUCT_ID, BRAND_ID))
+                .thenReturn(Flux.error(new IllegalStateException("database unavailable")));
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        cache.get(key);
+
+        assertThat(cache.getIfPresent(key)).isSameAs(stale);
+        assertThat(cacheManager.getCache("prices-stale").get(key)).isNull();
+        assertThat(cacheKeyIndex.keysOfProduct(BRAND_ID, PRODUCT_ID)).containsExactly(key);
+        assertThat(refreshes("failure")).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_whenPriceIsGone_shouldDropEntry() {
+        put(PriceFactory.createPrice(1L, BRAND_ID, 2, PRODUCT_ID, 1,
+                "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"));
+        when(priceRepositoryPort.findApplicablePrices(APPLICATION_DATE, PRODUCT_ID, BRAND_ID))
+                .thenReturn(Flux.empty());
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        cache.get(key);
+
+        assertThat(cache.asMap()).isEmpty();
+        assertThat(refreshes("empty")).isEqualTo(1.0);
+    }
+
+    @Test
+    void asyncReload_withForeignKey_shouldKeepOldValue() throws Exception {
+        PriceCacheRefresher refresher = refresher();
+
+        assertThat(refresher.asyncReload("not-a-price-key", "old", Runnable::run).get()).isEqualTo("old");
+        verifyNoInteractions(priceRepositoryPort);
+    }
+
+    @Test
+    void asyncReload_whenLookupIsSettled_shouldKeepOldValueWithoutQuery() throws Exception {
+        PriceCacheRefresher refresher = refresher();
+        String settledKey = cacheKeyGenerator.generateKey(LocalDateTime.parse("2020-06-14T10:00:00"), PRODUCT_ID, BRAND_ID);
+
+        assertThat(refresher.asyncReload(settledKey, "old", Runnable::run).get()).isEqualTo("old");
+        verifyNoInteractions(priceRepositoryPort);
+        assertThat(refreshes("success")).isZero();
+    }
+
+    private PriceCacheRefresher refresher() {
+        return new PriceCacheRefresher(priceRepositoryPort, cacheKeyGenerator, cacheKeyIndex, evictionFence,
+                new StaticListableBeanFactory(Map.of("cacheManager", cacheManager)).getBeanProvider(CacheManager.class),
+                CLOCK, meterRegistry);
+    }
+
+    private void put(Price price) {
+        cache.put(key, price);
+        cacheKeyIndex.register("prices", key);
+    }
+
+    private double refreshes(String result) {
+        return meterRegistry.get("price.cache.refreshes").tag("result", result).counter().count();
+    }
+}
@@ -1,18 +1,31 @@
 package com.example.priceselectorapi.application.cache;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +38,18 @@ class ReactiveCacheServiceTest {
     @Mock
     private Cache cache;
 
+    @Mock
+    private Cache negativeCache;
+
+    @Spy
+    private CacheKeyIndex cacheKeyIndex = new CacheKeyIndex(new PriceCacheKeyGenerator());
+
+    @Spy
+    private CacheEvictionFence evictionFence = new CacheEvictionFence(new PriceCacheKeyGenerator());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ReactiveCacheService reactiveCacheService;
 
@@ -64,6 +89,191 @@ class ReactiveCacheServiceTest {
 
         verify(cache).get(key);
         verify(cache).put(key, newValue);
+        assertThat(meterRegistry.get("price.cache.misses").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("price.cache.loads").tag("result", "success").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("price.request.stage").tag("stage", "cache").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_whenConcurrentMisses_shouldShareSingleLoad() {
+        String key = "test-key";
+        String newValue = "new-value";
+        Sinks.One<Object> pendingLoad = Sinks.one();
+        AtomicInteger supplierCalls = new AtomicInteger();
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cache.get(key)).thenReturn(null);
+
+        Supplier<Mono<Object>> supplier = () -> {
+            supplierCalls.incrementAndGet();
+            return pendingLoad.asMono();
+        };
+
+        Mono<Object> first = reactiveCacheService.get(key, supplier);
+        Mono<Object> second = reactiveCacheService.get(key, supplier);
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> pendingLoad.tryEmitValue(newValue))
+                .expectNextMatches(values -> newValue.equals(values.getT1()) && newValue.equals(values.getT2()))
+                .verifyComplete();
+
+        assertThat(supplierCalls).hasValue(1);
+        assertThat(meterRegistry.get("price.cache.loads.deduplicated").counter().count()).isEqualTo(1.0);
+        verify(cache, times(1)).put(key, newValue);
+    }
+
+    @Test
+    void get_whenLoadCompleted_shouldStartNewLoadForNextMiss() {
+        String key = "test-key";
+        AtomicInteger supplierCalls = new AtomicInteger();
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cache.get(key)).thenReturn(null);
+
+        Supplier<Mono<Object>> supplier = () -> Mono.just("value-" + supplierCalls.incrementAndGet());
+
+        StepVerifier.create(reactiveCacheService.get(key, supplier))
+                .expectNext("value-1")
+                .verifyComplete();
+        StepVerifier.create(reactiveCacheService.get(key, supplier))
+                .expectNext("value-2")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("price.cache.loads.deduplicated").counter().count()).isZero();
+    }
+
+    @Test
+    void get_whenMissIsNeverSubscribed_shouldNotRegisterLoad() {
+        String key = "test-key";
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cache.get(key)).thenReturn(null);
+
+        reactiveCacheService.get(key, () -> Mono.just("abandoned-value"));
+
+        StepVerifier.create(reactiveCacheService.get(key, () -> Mono.just("new-value")))
+                .expectNext("new-value")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("price.cache.loads.deduplicated").counter().count()).isZero();
+    }
+
+    @Test
+    void get_whenSubscriberCancels_shouldUnregisterLoad() {
+        String key = "test-key";
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cache.get(key)).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.get(key, Mono::never))
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(reactiveCacheService.get(key, () -> Mono.just("new-value")))
+                .expectNext("new-value")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("price.cache.loads.deduplicated").counter().count()).isZero();
+    }
+
+    @Test
+    void get_whenProductEvictedWhileLoading_shouldNotCacheLoadedValue() {
+        String key = "2020-06-14T10:00_35455_1";
+        Sinks.One<Object> pendingLoad = Sinks.one();
+        Cache pricesCache = new CaffeineCache("prices", Caffeine.newBuilder().build());
+        when(cacheManager.getCache("prices")).thenReturn(pricesCache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(null);
+        when(cacheManager.getCache("prices-stale")).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.get(key, pendingLoad::asMono))
+                .then(() -> reactiveCacheService.evictProduct(1, 35455L))
+                .then(() -> pendingLoad.tryEmitValue("value-read-before-eviction"))
+                .expectNext("value-read-before-eviction")
+                .verifyComplete();
+
+        assertThat(pricesCache.get(key)).isNull();
+
+        StepVerifier.create(reactiveCacheService.get(key, () -> Mono.just("value-read-after-eviction")))
+                .expectNext("value-read-after-eviction")
+                .verifyComplete();
+        assertThat(pricesCache.get(key).get()).isEqualTo("value-read-after-eviction");
+    }
+
+    @Test
+    void get_whenOtherProductEvictedWhileLoading_shouldCacheLoadedValue() {
+        String key = "2020-06-14T10:00_35455_1";
+        Sinks.One<Object> pendingLoad = Sinks.one();
+        Cache pricesCache = new CaffeineCache("prices", Caffeine.newBuilder().build());
+        when(cacheManager.getCache("prices")).thenReturn(pricesCache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(null);
+        when(cacheManager.getCache("prices-stale")).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.get(key, pendingLoad::asMono))
+                .then(() -> reactiveCacheService.evictProduct(1, 99999L))
+                .then(() -> pendingLoad.tryEmitValue("new-value"))
+                .expectNext("new-value")
+                .verifyComplete();
+
+        assertThat(pricesCache.get(key).get()).isEqualTo("new-value");
+    }
+
+    @Test
+    void get_whenLoadIsEmpty_shouldCacheNegativeSentinel() {
+        String key = "test-key";
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(negativeCache);
+        when(cache.get(key)).thenReturn(null);
+        when(negativeCache.get(key)).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.get(key, Mono::empty))
+                .verifyComplete();
+
+        verify(negativeCache).put(key, ReactiveCacheService.EmptyResult.INSTANCE);
+        verify(cache, never()).put(any(), any());
+        assertThat(meterRegistry.get("price.cache.loads").tag("result", "empty").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_whenLoadFails_shouldCountFailedLoadWithoutCaching() {
+        String key = "test-key";
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(negativeCache);
+        when(cache.get(key)).thenReturn(null);
+        when(negativeCache.get(key)).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.get(key, () -> Mono.error(new IllegalStateException("Database unavailable"))))
+                .expectErrorMessage("Database unavailable")
+                .verify();
+
+        verify(cache, never()).put(any(), any());
+        verify(negativeCache, never()).put(any(), any());
+        assertThat(meterRegistry.get("price.cache.misses").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("price.cache.loads").tag("result", "failure").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("price.cache.loads").tag("result", "empty").counter().count()).isZero();
+    }
+
+    @Test
+    void get_whenNegativeCacheHit_shouldReturnEmptyWithoutCallingSupplier() {
+        String key = "test-key";
+        Cache.ValueWrapper sentinel = mock(Cache.ValueWrapper.class);
+        AtomicInteger supplierCalls = new AtomicInteger();
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(negativeCache);
+        when(cache.get(key)).thenReturn(null);
+        when(negativeCache.get(key)).thenReturn(sentinel);
+
+        StepVerifier.create(reactiveCacheService.get(key, () -> {
+                    supplierCalls.incrementAndGet();
+                    return Mono.just("new-value");
+                }))
+                .verifyComplete();
+
+        assertThat(supplierCalls).hasValue(0);
+        assertThat(meterRegistry.get("price.cache.hits").tag("type", "negative").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("price.cache.hits").tag("type", "positive").counter().count()).isZero();
     }
 
     @Test
@@ -94,6 +304,18 @@ class ReactiveCacheServiceTest {
         verify(cache).evict(key);
     }
 
+    @Test
+    void evict_shouldEvictNegativeEntry() {
+        String key = "test-key";
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(negativeCache);
+
+        reactiveCacheService.evict(key);
+
+        verify(negativeCache).evict(key);
+    }
+
     @Test
     void clear_shouldClearCache() {
         when(cacheManager.getCache("prices")).thenReturn(cache);
@@ -102,4 +324,190 @@ class ReactiveCacheServiceTest {
 
         verify(cache).clear();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getAll_shouldServeHitsAndLoadAllMissesInOneCall() {
+        Cache.ValueWrapper valueWrapper = mock(Cache.ValueWrapper.class);
+        Cache.ValueWrapper sentinel = mock(Cache.ValueWrapper.class);
+        AtomicReference<Set<String>> requestedKeys = new AtomicReference<>();
+        AtomicInteger loaderCalls = new AtomicInteger();
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(negativeCache);
+        when(cache.get(anyString())).thenAnswer(invocation ->
+                "hit".equals(invocation.getArgument(0)) ? valueWrapper : null);
+        when(valueWrapper.get()).thenReturn("cached-value");
+        when(negativeCache.get(anyString())).thenAnswer(invocation ->
+                "known-empty".equals(invocation.getArgument(0)) ? sentinel : null);
+
+        Mono<Map<String, Object>> result = reactiveCacheService.getAll(
+                List.of("hit", "miss-found", "known-empty", "miss-empty"),
+                missing -> {
+                    loaderCalls.incrementAndGet();
+                    requestedKeys.set(missing);
+                    return Mono.just(Map.of("miss-found", "loaded-value"));
+                });
+
+        StepVerifier.create(result)
+                .assertNext(values -> assertThat(values).containsOnly(
+                        Map.entry("hit", "cached-value"),
+                        Map.entry("miss-found", "loaded-value")))
+                .verifyComplete();
+
+        assertThat(loaderCalls).hasValue(1);
+        assertThat(requestedKeys.get()).containsExactly("miss-found", "miss-empty");
+        verify(cache).put("miss-found", "loaded-value");
+        verify(negativeCache).put("miss-empty", ReactiveCacheService.EmptyResult.INSTANCE);
+    }
+
+    @Test
+    void getAll_whenAllKeysCached_shouldNotCallLoader() {
+        Cache.ValueWrapper valueWrapper = mock(Cache.ValueWrapper.class);
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cache.get("hit")).thenReturn(valueWrapper);
+        when(valueWrapper.get()).thenReturn("cached-value");
+
+        StepVerifier.create(reactiveCacheService.getAll(List.of("hit", "hit"),
+                        missing -> Mono.error(new IllegalStateException("Loader should not be called"))))
+                .assertNext(values -> assertThat(values).containsOnly(Map.entry("hit", "cached-value")))
+                .verifyComplete();
+    }
+
+    @Test
+    void evictProduct_shouldEvictEveryKeyOfProductFromBothCaches() {
+        String morningKey = "2020-06-14T10:00_35455_1";
+        String eveningKey = "2020-06-14T21:00_35455_1";
+        String otherProductKey = "2020-06-14T10:00_35456_1";
+
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(negativeCache);
+        when(cache.get(anyString())).thenReturn(null);
+        when(negativeCache.get(anyString())).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.get(morningKey, () -> Mono.just("value"))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(reactiveCacheService.get(eveningKey, Mono::empty)).verifyComplete();
+        StepVerifier.create(reactiveCacheService.get(otherProductKey, () -> Mono.just("value"))).expectNextCount(1).verifyComplete();
+
+        int evicted = reactiveCacheService.evictProduct(1, 35455L);
+
+        assertThat(evicted).isEqualTo(2);
+        verify(cache).evict(morningKey);
+        verify(cache).evict(eveningKey);
+        verify(negativeCache).evict(eveningKey);
+        verify(cache, never()).evict(otherProductKey);
+    }
+
+    @Test
+    void evictBrand_shouldEvictEveryKeyOfBrand() {
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(negativeCache);
+        when(cache.get(anyString())).thenReturn(null);
+        when(negativeCache.get(anyString())).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.get("2020-06-14T10:00_35455_1", () -> Mono.just("value"))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(reactiveCacheService.get("2020-06-14T10:00_35456_1", () -> Mono.just("value"))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(reactiveCacheService.get("2020-06-14T10:00_35455_2", () -> Mono.just("value"))).expectNextCount(1).verifyComplete();
+
+        assertThat(reactiveCacheService.evictBrand(1)).isEqualTo(2);
+        verify(cache, never()).evict("2020-06-14T10:00_35455_2");
+    }
+
+    @Test
+    void get_whenCacheMiss_shouldWriteValueThroughToStaleCache() {
+        String key = "2020-06-14T10:00_35455_1";
+        Cache staleCache = mock(Cache.class);
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cacheManager.getCache("prices-negative")).thenReturn(null);
+        when(cacheManager.getCache("prices-stale")).thenReturn(staleCache);
+
+        StepVerifier.create(reactiveCacheService.get(key, () -> Mono.just("new-value")))
+                .expectNext("new-value")
+                .verifyComplete();
+
+        verify(staleCache).put(key, "new-value");
+        verify(cacheKeyIndex).register("prices", key);
+        verify(cacheKeyIndex).register("prices-stale", key);
+    }
+
+    @Test
+    void getIfPresent_shouldNotLoadOnMiss() {
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+        when(cache.get("known")).thenReturn(() -> "cached-value");
+
+        StepVerifier.create(reactiveCacheService.getIfPresent("known"))
+                .expectNext("cached-value")
+                .verifyComplete();
+        StepVerifier.create(reactiveCacheService.getIfPresent("unknown"))
+                .verifyComplete();
+        verify(cache, never()).put(any(), any());
+        assertThat(meterRegistry.get("price.cache.hits").tag("type", "positive").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getIfPresent_shouldRecordOnlyHitsInCaffeineStats() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .recordStats()
+                .build();
+        when(cacheManager.getCache("prices")).thenReturn(new CaffeineCache("prices", nativeCache));
+        nativeCache.put("known", "cached-value");
+
+        StepVerifier.create(reactiveCacheService.getIfPresent("unknown"))
+                .verifyComplete();
+        StepVerifier.create(reactiveCacheService.getIfPresent("known"))
+                .expectNext("cached-value")
+                .verifyComplete();
+
+        assertThat(nativeCache.stats().missCount()).isZero();
+        assertThat(nativeCache.stats().hitCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("price.cache.misses").counter().count()).isZero();
+    }
+
+    @Test
+    void getStale_shouldReturnLastLoadedValue() {
+        Cache staleCache = mock(Cache.class);
+        when(cacheManager.getCache("prices-stale")).thenReturn(staleCache);
+        when(staleCache.get("known")).thenReturn(() -> "last-value");
+
+        StepVerifier.create(reactiveCacheService.getStale("known"))
+                .expectNext("last-value")
+                .verifyComplete();
+        StepVerifier.create(reactiveCacheService.getStale("unknown"))
+                .verifyComplete();
+        assertThat(meterRegistry.get("price.cache.hits").tag("type", "stale").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getStale_withoutStaleCache_shouldReturnEmpty() {
+        when(cacheManager.getCache("prices-stale")).thenReturn(null);
+
+        StepVerifier.create(reactiveCacheService.getStale("known"))
+                .verifyComplete();
+    }
+
+    @Test
+    void hottestKeys_shouldRankKeysByCaffeineFrequency() {
+        // Caffeine starts its frequency sketch once the cache is half full
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .maximumSize(3)
+                .executor(Runnable::run)
+                .build();
+        when(cacheManager.getCache("prices")).thenReturn(new CaffeineCache("prices", nativeCache));
+        nativeCache.put("cold", "value");
+        nativeCache.put("hot", "value");
+        for (int i = 0; i < 10; i++) {
+            nativeCache.getIfPresent("hot");
+        }
+        nativeCache.cleanUp();
+
+        assertThat(reactiveCacheService.hottestKeys(1)).containsExactly("hot");
+        assertThat(reactiveCacheService.hottestKeys(10)).containsExactly("hot", "cold");
+    }
+
+    @Test
+    void hottestKeys_whenCacheHasNoFrequencyData_shouldReturnNothing() {
+        when(cacheManager.getCache("prices")).thenReturn(cache);
+
+        assertThat(reactiveCacheService.hottestKeys(10)).isEmpty();
+    }
+}
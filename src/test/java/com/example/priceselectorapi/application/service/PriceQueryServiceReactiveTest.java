@@ -4,6 +4,7 @@ import com.example.priceselectorapi.application.cache.CacheKeyGenerator;
 import com.example.priceselectorapi.application.cache.CacheStrategy;
 import com.example.priceselectorapi.domain.model.Price;
 import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -15,9 +16,16 @@ import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -149,4 +157,81 @@ class PriceQueryServiceReactiveTest {
         verify(cacheKeyGenerator).generateKey(applicationDate, productId, brandId);
         verify(cacheStrategy).get(eq(cacheKey), any(Supplier.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findApplicablePrices_shouldResolveEachKeyFromSingleRepositoryCall() {
+        LocalDateTime morning = LocalDateTime.of(2020, 6, 14, 10, 0, 0);
+        LocalDateTime afternoon = LocalDateTime.of(2020, 6, 14, 16, 0, 0);
+        PriceLookupKey morningKey = PriceLookupKey.of(morning, 35455L, 1);
+        PriceLookupKey afternoonKey = PriceLookupKey.of(afternoon, 35455L, 1);
+        PriceLookupKey unknownKey = PriceLookupKey.of(morning, 99999L, 1);
+
+        Price basePrice = Price.builder()
+                .id(1L).priority(0).priceList(1).productId(35455L).brandId(1)
+                .startDate(LocalDateTime.of(2020, 6, 14, 0, 0, 0))
+                .endDate(LocalDateTime.of(2020, 12, 31, 23, 59, 59))
+                .priceAmount(new BigDecimal("35.50")).curr("EUR")
+                .build();
+        Price promotion = Price.builder()
+                .id(2L).priority(1).priceList(2).productId(35455L).brandId(1)
+                .startDate(LocalDateTime.of(2020, 6, 14, 15, 0, 0))
+                .endDate(LocalDateTime.of(2020, 6, 14, 18, 30, 0))
+                .priceAmount(new BigDecimal("25.45")).curr("EUR")
+                .build();
+
+        when(cacheKeyGenerator.generateKey(any(LocalDateTime.class), any(Long.class), any(Integer.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0) + "_" + invocation.getArgument(1)
+                        + "_" + invocation.getArgument(2));
+        when(priceRepositoryPort.findApplicablePrices(anyCollection()))
+                .thenReturn(Flux.just(promotion, basePrice));
+        when(cacheStrategy.getAll(anyCollection(), any(Function.class)))
+                .thenAnswer(invocation -> {
+                    Collection<String> keys = invocation.getArgument(0);
+                    Function<Set<String>, Mono<Map<String, Object>>> loader = invocation.getArgument(1);
+                    return loader.apply(Set.copyOf(keys));
+                });
+
+        StepVerifier.create(priceQueryService.findApplicablePrices(List.of(morningKey, afternoonKey, unknownKey)))
+                .assertNext(prices -> {
+                    assertThat(prices).hasSize(2).doesNotContainKey(unknownKey);
+                    assertThat(prices.get(morningKey).getPriceList()).isEqualTo(1);
+                    assertThat(prices.get(afternoonKey).getPriceList()).isEqualTo(2);
+                })
+                .verifyComplete();
+
+        verify(priceRepositoryPort, times(1)).findApplicablePrices(anyCollection());
+        verify(priceRepositoryPort, never()).findApplicablePrices(any(), any(), any());
+    }
+
+    @Test
+    void streamApplicablePrices_shouldEmitFirstPriceOfEachProduct() {
+        LocalDateTime applicationDate = LocalDateTime.of(2020, 6, 14, 16, 0, 0);
+        Price promotion = Price.builder().productId(35455L).brandId(1).priceList(2).priority(1).build();
+        Price basePrice = Price.builder().productId(35455L).brandId(1).priceList(1).priority(0).build();
+        Price otherProduct = Price.builder().productId(35456L).brandId(1).priceList(5).priority(0).build();
+
+        when(priceRepositoryPort.findApplicablePricesByBrand(applicationDate, 1))
+                .thenReturn(Flux.just(promotion, basePrice, otherProduct));
+
+        StepVerifier.create(priceQueryService.streamApplicablePrices(applicationDate, 1), 1)
+                .expectNext(promotion)
+                .thenRequest(1)
+                .expectNext(otherProduct)
+                .verifyComplete();
+
+        verifyNoInteractions(cacheStrategy);
+    }
+
+    @Test
+    void findPriceTimeline_whenNoPriceApplies_shouldEmitEmptyList() {
+        LocalDateTime from = LocalDateTime.of(2019, 1, 1, 0, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2019, 1, 2, 0, 0, 0);
+
+        when(priceRepositoryPort.findPricesInRange(from, to, 35455L, 1)).thenReturn(Flux.empty());
+
+        StepVerifier.create(priceQueryService.findPriceTimeline(from, to, 35455L, 1))
+                .assertNext(segments -> assertThat(segments).isEmpty())
+                .verifyComplete();
+    }
+}
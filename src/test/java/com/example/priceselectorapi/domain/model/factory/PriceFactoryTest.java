@@ -67,6 +67,21 @@ class PriceFactoryTest {
 
             assertThat(price.getPriceAmount()).isEqualTo(BigDecimal.ZERO);
         }
+
+        @Test
+        @DisplayName("Should create the same Price from row text")
+        void shouldCreatePriceFromRowText() {
+            Price price = PriceFactory.createPrice(
+                    1L, 1, 1, 35455L, 1,
+                    "2020-06-14T10:00:00", "2020-06-15T18:00:00", "35.50", currencyCode
+            );
+
+            assertThat(price).isEqualTo(PriceFactory.createPrice(
+                    1L, 1, 1, 35455L, 1,
+                    startDate, endDate, amount, currencyCode
+            ));
+            assertThat(price.getPriceAmount()).isEqualTo(amount);
+        }
     }
 
     @Nested
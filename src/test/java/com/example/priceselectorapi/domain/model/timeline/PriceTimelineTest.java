@@ -0,0 +1,203 @@
+package com.example.priceselectorapi.domain.model.timeline;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import com.example.priceselectorapi.domain.model.valueobject.DateRange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PriceTimeline Tests")
+class PriceTimelineTest {
+
+    private final Price basePrice = PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "10.00", "EUR");
+    private final Price afternoonPromotion = PriceFactory.createPrice(2L, 1, 2, 35455L, 1,
+            "2020-06-14T15:00:00", "2020-06-14T18:30:00", "10.00", "EUR");
+    private final Price morningSpecial = PriceFactory.createPrice(3L, 1, 3, 35455L, 1,
+            "2020-06-15T00:00:00", "2020-06-15T11:00:00", "10.00", "EUR");
+    private final Price extendedOffer = PriceFactory.createPrice(4L, 1, 4, 35455L, 1,
+            "2020-06-15T16:00:00", "2020-12-31T23:59:59", "10.00", "EUR");
+
+    private final PriceTimeline timeline = PriceTimeline.of(
+            List.of(basePrice, afternoonPromotion, morningSpecial, extendedOffer));
+
+    @Nested
+    @DisplayName("Flattening Tests")
+    class FlatteningTests {
+
+        @Test
+        @DisplayName("Should flatten overlapping prices into disjoint winner segments")
+        void shouldFlattenIntoDisjointSegments() {
+            assertThat(timeline.getSegments())
+                    .extracting(segment -> segment.getPrice().getPriceList())
+                    .containsExactly(1, 2, 1, 3, 1, 4);
+        }
+
+        @Test
+        @DisplayName("Should make segments contiguous where prices are contiguous")
+        void shouldMakeSegmentsContiguous() {
+            List<PriceSegment> segments = timeline.getSegments();
+
+            assertThat(segments.get(0).getStartDate()).isEqualTo(LocalDateTime.parse("2020-06-14T00:00:00"));
+            assertThat(segments.get(0).getEndDate()).isEqualTo(LocalDateTime.parse("2020-06-14T15:00:00").minusNanos(1));
+            assertThat(segments.get(1).getStartDate()).isEqualTo(LocalDateTime.parse("2020-06-14T15:00:00"));
+            assertThat(segments.get(1).getEndDate()).isEqualTo(LocalDateTime.parse("2020-06-14T18:30:00"));
+            assertThat(segments.get(5).getEndDate()).isEqualTo(LocalDateTime.parse("2020-12-31T23:59:59"));
+
+            for (int i = 1; i < segments.size(); i++) {
+                assertThat(segments.get(i).getStartDate())
+                        .isEqualTo(segments.get(i - 1).getEndDate().plusNanos(1));
+            }
+        }
+
+        @Test
+        @DisplayName("Should merge neighbouring ranges won by the same price")
+        void shouldMergeRangesWonBySamePrice() {
+            Price hidden = PriceFactory.createPrice(5L, 1, 5, 35455L, 0,
+                    "2020-06-14T16:00:00", "2020-06-14T17:00:00", "10.00", "EUR");
+
+            PriceTimeline merged = PriceTimeline.of(List.of(afternoonPromotion, hidden));
+
+            assertThat(merged.getSegments()).hasSize(1);
+            assertThat(merged.getSegments().get(0).getPrice()).isSameAs(afternoonPromotion);
+        }
+
+        @Test
+        @DisplayName("Should leave gaps where no price is valid")
+        void shouldLeaveGaps() {
+            PriceTimeline withGap = PriceTimeline.of(List.of(afternoonPromotion, morningSpecial));
+
+            assertThat(withGap.getSegments()).hasSize(2);
+            assertThat(withGap.findWinner(LocalDateTime.parse("2020-06-14T20:00:00"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should keep a price ending at the end of time open")
+        void shouldKeepOpenEndedPriceOpen() {
+            Price openEnded = PriceFactory.createPrice(6L, 1, 6, 35455L, 0,
+                    LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.MAX, new BigDecimal("10.00"), "EUR");
+
+            PriceTimeline openTimeline = PriceTimeline.of(List.of(openEnded, afternoonPromotion));
+
+            assertThat(openTimeline.getSegments()).extracting(segment -> segment.getPrice().getPriceList())
+                    .containsExactly(6, 2, 6);
+            assertThat(openTimeline.getSegments().get(2).getEndDate()).isEqualTo(LocalDateTime.MAX);
+            assertThat(openTimeline.findWinner(LocalDateTime.MAX).map(Price::getPriceList)).contains(6);
+        }
+
+        @Test
+        @DisplayName("Should resolve every range like the priority rule over many overlapping prices")
+        void shouldMatchPriorityRuleOverManyPrices() {
+            List<Price> prices = new ArrayList<>();
+            LocalDateTime origin = LocalDateTime.parse("2020-01-01T00:00:00");
+            for (int i = 0; i < 200; i++) {
+                LocalDateTime start = origin.plusHours((i * 37L) % 500);
+                prices.add(PriceFactory.createPrice(i + 1L, 1, i + 1, 35455L, (i * 7) % 5,
+                        start, start.plusHours(1 + (i * 13L) % 90), new BigDecimal("10.00"), "EUR"));
+            }
+
+            PriceTimeline manyPrices = PriceTimeline.of(prices);
+
+            for (int hour = -1; hour < 600; hour++) {
+                LocalDateTime applicationDate = origin.plusHours(hour).plusMinutes(30);
+                Price expected = prices.stream()
+                        .filter(price -> price.getValidityPeriod().contains(applicationDate))
+                        .reduce((first, second) -> second.outranks(first) ? second : first)
+                        .orElse(null);
+                assertThat(manyPrices.findWinner(applicationDate).orElse(null)).isSameAs(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("Should build an empty timeline from no prices")
+        void shouldBuildEmptyTimeline() {
+            assertThat(PriceTimeline.of(List.of()).isEmpty()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should resolve the same winners as the priority rule")
+        void shouldResolveWinners() {
+            assertThat(winner("2020-06-14T10:00:00")).isEqualTo(1);
+            assertThat(winner("2020-06-14T16:00:00")).isEqualTo(2);
+            assertThat(winner("2020-06-14T21:00:00")).isEqualTo(1);
+            assertThat(winner("2020-06-15T10:00:00")).isEqualTo(3);
+            assertThat(winner("2020-06-16T21:00:00")).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should treat price boundaries as inclusive")
+        void shouldTreatBoundariesAsInclusive() {
+            assertThat(winner("2020-06-14T18:30:00")).isEqualTo(2);
+            assertThat(winner("2020-06-14T18:30:00.000000001")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should return empty outside the timeline")
+        void shouldReturnEmptyOutsideTimeline() {
+            assertThat(timeline.findWinner(LocalDateTime.parse("2020-06-13T23:59:59"))).isEmpty();
+            assertThat(timeline.findWinner(LocalDateTime.parse("2021-01-01T00:00:00"))).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Window Tests")
+    class WindowTests {
+
+        @Test
+        @DisplayName("Should clip the first and last segments to the window")
+        void shouldClipSegmentsToWindow() {
+            LocalDateTime from = LocalDateTime.parse("2020-06-14T12:00:00");
+            LocalDateTime to = LocalDateTime.parse("2020-06-15T05:00:00");
+
+            List<PriceSegment> window = timeline.segmentsBetween(from, to);
+
+            assertThat(window).extracting(segment -> segment.getPrice().getPriceList()).containsExactly(1, 2, 1, 3);
+            assertThat(window.get(0).getStartDate()).isEqualTo(from);
+            assertThat(window.get(1)).isSameAs(timeline.getSegments().get(1));
+            assertThat(window.get(3).getStartDate()).isEqualTo(LocalDateTime.parse("2020-06-15T00:00:00"));
+            assertThat(window.get(3).getEndDate()).isEqualTo(to);
+        }
+
+        @Test
+        @DisplayName("Should return a single clipped segment for a window inside one segment")
+        void shouldReturnSingleSegmentInsideWindow() {
+            LocalDateTime from = LocalDateTime.parse("2020-06-14T16:00:00");
+            LocalDateTime to = LocalDateTime.parse("2020-06-14T17:00:00");
+
+            List<PriceSegment> window = timeline.segmentsBetween(from, to);
+
+            assertThat(window).hasSize(1);
+            assertThat(window.get(0).getValidityPeriod()).isEqualTo(
+                    DateRange.of(from, to));
+            assertThat(window.get(0).getPrice()).isSameAs(afternoonPromotion);
+        }
+
+        @Test
+        @DisplayName("Should return no segments for a window outside the timeline")
+        void shouldReturnNothingOutsideTimeline() {
+            assertThat(timeline.segmentsBetween(LocalDateTime.parse("2019-01-01T00:00:00"),
+                    LocalDateTime.parse("2019-12-31T00:00:00"))).isEmpty();
+            assertThat(timeline.segmentsBetween(LocalDateTime.parse("2021-01-01T00:00:00"),
+                    LocalDateTime.parse("2021-12-31T00:00:00"))).isEmpty();
+        }
+    }
+
+    private Integer winner(String applicationDate) {
+        return timeline.findWinner(LocalDateTime.parse(applicationDate))
+                .map(Price::getPriceList)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.priceselectorapi.infrastructure.actuator;
+
+import com.example.priceselectorapi.application.metrics.PriceLookupEvent;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JfrRecordingEndpoint Tests")
+class JfrRecordingEndpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(endpoint, "dumpFile", tempDir.resolve("recording.jfr"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    @DisplayName("Should start and stop one recording with the price events enabled")
+    void shouldStartAndStopRecording() {
+        assertThat(endpoint.status()).containsEntry("state", "NONE");
+
+        assertThat(endpoint.control(JfrRecordingEndpoint.Action.START, Duration.ofMinutes(5)))
+                .containsEntry("name", JfrRecordingEndpoint.RECORDING_NAME)
+                .containsEntry("state", RecordingState.RUNNING)
+                .containsEntry("duration", Duration.ofMinutes(5))
+                .containsEntry("events", List.of("com.example.priceselectorapi.PriceLookup",
+                        "com.example.priceselectorapi.PriceDbQuery", "com.example.priceselectorapi.CacheEviction"));
+
+        assertThat(endpoint.control(JfrRecordingEndpoint.Action.STOP, null))
+                .containsEntry("state", RecordingState.STOPPED);
+    }
+
+    @Test
+    @DisplayName("Should dump the price events recorded so far")
+    void shouldDumpRecordedEvents() throws Exception {
+        endpoint.control(JfrRecordingEndpoint.Action.START, null);
+        PriceLookupEvent lookupEvent = new PriceLookupEvent();
+        lookupEvent.begin();
+        lookupEvent.key = "2020-06-14T16:00|35455|1";
+        lookupEvent.outcome = "hit";
+        lookupEvent.commit();
+
+        WebEndpointResponse<Resource> response = endpoint.dump(JfrRecordingEndpoint.DUMP);
+
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        List<RecordedEvent> lookups = RecordingFile.readAllEvents(response.getBody().getFile().toPath()).stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.priceselectorapi.PriceLookup"))
+                .toList();
+        assertThat(lookups).singleElement()
+                .satisfies(event -> assertThat(event.getString("outcome")).isEqualTo("hit"));
+    }
+
+    @Test
+    @DisplayName("Should not dump anything before a recording was started")
+    void shouldNotDumpWithoutRecording() throws Exception {
+        assertThat(endpoint.dump(JfrRecordingEndpoint.DUMP).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        endpoint.control(JfrRecordingEndpoint.Action.START, null);
+        assertThat(endpoint.dump("unknown").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.priceselectorapi.infrastructure.config;
+
+import com.example.priceselectorapi.application.cache.CacheEvictionFence;
+import com.example.priceselectorapi.application.cache.CacheKeyIndex;
+import com.example.priceselectorapi.application.cache.PriceCacheKeyGenerator;
+import com.example.priceselectorapi.application.cache.PriceCacheRefresher;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@DisplayName("CacheConfig Tests")
+class CacheConfigTest {
+
+    private final PriceRepositoryPort priceRepositoryPort = mock(PriceRepositoryPort.class);
+
+    @Test
+    @DisplayName("Should read prices cache misses without running the refresh-ahead loader")
+    void missShouldNotRunLoader() {
+        Cache prices = cacheManager().getCache("prices");
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) prices).getNativeCache();
+
+        assertThat(prices.get("2020-06-14T10:00_35455_1")).isNull();
+
+        assertThat(nativeCache).isInstanceOf(LoadingCache.class);
+        assertThat(nativeCache.stats().loadFailureCount()).isZero();
+        assertThat(nativeCache.stats().loadCount()).isZero();
+        assertThat(nativeCache.stats().missCount()).isEqualTo(1);
+        verifyNoInteractions(priceRepositoryPort);
+    }
+
+    private CacheManager cacheManager() {
+        CacheConfig cacheConfig = new CacheConfig();
+        ReflectionTestUtils.setField(cacheConfig, "pricesCacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cacheConfig, "pricesCacheSettledTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(cacheConfig, "refreshAheadEnabled", true);
+        ReflectionTestUtils.setField(cacheConfig, "refreshAheadAfter", Duration.ofMinutes(4));
+        ReflectionTestUtils.setField(cacheConfig, "pricesCacheMaxSize", 1000L);
+
+        PriceCacheKeyGenerator cacheKeyGenerator = new PriceCacheKeyGenerator();
+        CacheKeyIndex cacheKeyIndex = new CacheKeyIndex(cacheKeyGenerator);
+        PriceCacheRefresher refresher = new PriceCacheRefresher(priceRepositoryPort, cacheKeyGenerator, cacheKeyIndex,
+                new CacheEvictionFence(cacheKeyGenerator), new StaticListableBeanFactory().getBeanProvider(CacheManager.class),
+                Clock.systemUTC(), new SimpleMeterRegistry());
+        return cacheConfig.cacheManager(cacheKeyIndex, cacheKeyGenerator, refresher, priceRepositoryPort, Clock.systemUTC());
+    }
+}
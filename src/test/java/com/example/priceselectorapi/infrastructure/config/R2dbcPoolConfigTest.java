@@ -0,0 +1,50 @@
+package com.example.priceselectorapi.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///pool-config-test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.cache.warmup.enabled=false"})
+@DisplayName("R2dbcPoolConfig Tests")
+class R2dbcPoolConfigTest {
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should keep the pool as the connection factory bean and its gauges")
+    void shouldKeepConnectionPoolBean() {
+        assertThat(connectionFactory).isInstanceOf(ConnectionPool.class);
+        assertThat(((ConnectionPool) connectionFactory).isDisposed()).isFalse();
+        assertThat(meterRegistry.find("r2dbc.pool.acquired").gauge()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should time the connection acquisitions of the database client")
+    void shouldTimeDatabaseClientAcquisitions() {
+        long before = meterRegistry.get("r2dbc.pool.acquire").tag("result", "success").timer().count();
+
+        StepVerifier.create(databaseClient.sql("SELECT COUNT(*) FROM PRICES").map(row -> row.get(0, Long.class)).one())
+                .assertNext(count -> assertThat(count).isPositive())
+                .verifyComplete();
+
+        assertThat(databaseClient.getConnectionFactory()).isInstanceOf(TimedConnectionFactory.class);
+        assertThat(meterRegistry.get("r2dbc.pool.acquire").tag("result", "success").timer().count()).isEqualTo(before + 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.priceselectorapi.infrastructure.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimedConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory connectionPool;
+
+    @Mock
+    private Connection connection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void create_shouldRecordSuccessfulAcquisition() {
+        doReturn(Mono.just(connection)).when(connectionPool).create();
+        TimedConnectionFactory connectionFactory = new TimedConnectionFactory(connectionPool, "connectionFactory", meterRegistry);
+
+        StepVerifier.create(connectionFactory.create())
+                .expectNext(connection)
+                .verifyComplete();
+
+        assertThat(acquisitions("success")).isEqualTo(1);
+        assertThat(acquisitions("failure")).isZero();
+    }
+
+    @Test
+    void create_whenPoolIsExhausted_shouldRecordFailedAcquisition() {
+        doReturn(Mono.error(new R2dbcTransientResourceException("Timeout acquiring connection")))
+                .when(connectionPool).create();
+        TimedConnectionFactory connectionFactory = new TimedConnectionFactory(connectionPool, "connectionFactory", meterRegistry);
+
+        StepVerifier.create(connectionFactory.create())
+                .expectError(R2dbcTransientResourceException.class)
+                .verify();
+
+        assertThat(acquisitions("failure")).isEqualTo(1);
+        assertThat(acquisitions("success")).isZero();
+    }
+
+    @Test
+    void create_shouldAcquireOnSubscription() {
+        TimedConnectionFactory connectionFactory = new TimedConnectionFactory(connectionPool, "connectionFactory", meterRegistry);
+
+        connectionFactory.create();
+
+        verifyNoInteractions(connectionPool);
+        assertThat(connectionFactory.unwrap()).isSameAs(connectionPool);
+    }
+
+    private long acquisitions(String result) {
+        return meterRegistry.get("r2dbc.pool.acquire").tag("name", "connectionFactory").tag("result", result).timer().count();
+    }
+}
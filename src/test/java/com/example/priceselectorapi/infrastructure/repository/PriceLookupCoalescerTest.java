@@ -0,0 +1,114 @@
+package com.example.priceselectorapi.infrastructure.repository;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PriceLookupCoalescer Tests")
+class PriceLookupCoalescerTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.parse("2020-06-14T10:00:00");
+    private static final LocalDateTime AFTERNOON = LocalDateTime.parse("2020-06-14T16:00:00");
+
+    private final Price basePrice = PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "10.00", "EUR");
+    private final Price promotion = PriceFactory.createPrice(2L, 1, 2, 35455L, 1,
+            "2020-06-14T15:00:00", "2020-06-14T18:30:00", "10.00", "EUR");
+    private final Price otherProduct = PriceFactory.createPrice(3L, 1, 3, 11111L, 0,
+            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "10.00", "EUR");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<PriceLookupKey>> batches = new CopyOnWriteArrayList<>();
+    private PriceLookupCoalescer coalescer;
+
+    @Test
+    @DisplayName("Should resolve lookups arriving within the window with one batch")
+    void shouldResolveLookupsWithinWindowTogether() {
+        coalescer = coalescer(keys -> Flux.just(promotion, basePrice, otherProduct), 32, Duration.ofMillis(50));
+
+        Mono<List<List<Integer>>> lookups = Flux.just(
+                        PriceLookupKey.of(AFTERNOON, 35455L, 1),
+                        PriceLookupKey.of(MORNING, 35455L, 1),
+                        PriceLookupKey.of(MORNING, 11111L, 1),
+                        PriceLookupKey.of(MORNING, 99999L, 1))
+                .flatMapSequential(key -> coalescer.findApplicablePrices(key).map(Price::getPriceList).collectList())
+                .collectList();
+
+        StepVerifier.create(lookups)
+                .assertNext(priceLists -> assertThat(priceLists).containsExactly(
+                        List.of(2, 1), List.of(1), List.of(3), List.of()))
+                .verifyComplete();
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(4);
+        assertThat(meterRegistry.get("price.lookup.batch.size").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("price.lookup.batch.wait").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should send a batch as soon as it reaches the maximum size")
+    void shouldSendFullBatchWithoutWaiting() {
+        coalescer = coalescer(keys -> Flux.just(basePrice), 2, Duration.ofMinutes(1));
+
+        Mono<List<Price>> lookups = Flux.just(PriceLookupKey.of(MORNING, 35455L, 1), PriceLookupKey.of(AFTERNOON, 35455L, 1))
+                .flatMap(coalescer::findApplicablePrices)
+                .collectList();
+
+        StepVerifier.create(lookups)
+                .assertNext(prices -> assertThat(prices).hasSize(2))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should leave out lookups cancelled before their batch is sent")
+    void shouldNotQueryCancelledLookups() {
+        coalescer = coalescer(keys -> Flux.just(basePrice, otherProduct), 32, Duration.ofMillis(50));
+
+        coalescer.findApplicablePrices(PriceLookupKey.of(MORNING, 11111L, 1)).subscribe().dispose();
+
+        StepVerifier.create(coalescer.findApplicablePrices(PriceLookupKey.of(MORNING, 35455L, 1)))
+                .expectNext(basePrice)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(batches).containsExactly(List.of(PriceLookupKey.of(MORNING, 35455L, 1)));
+    }
+
+    @Test
+    @DisplayName("Should fail every lookup of a failed batch and keep serving later ones")
+    void shouldFailEveryLookupOfFailedBatch() {
+        coalescer = coalescer(keys -> batches.size() == 1
+                ? Flux.error(new IllegalStateException("Database unavailable"))
+                : Flux.just(basePrice), 32, Duration.ofMillis(10));
+
+        StepVerifier.create(coalescer.findApplicablePrices(PriceLookupKey.of(MORNING, 35455L, 1)))
+                .expectErrorMessage("Database unavailable")
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(coalescer.findApplicablePrices(PriceLookupKey.of(MORNING, 35455L, 1)))
+                .expectNext(basePrice)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private PriceLookupCoalescer coalescer(Function<List<PriceLookupKey>, Flux<Price>> loader,
+                                           int maxBatchSize, Duration window) {
+        return new PriceLookupCoalescer(keys -> {
+            batches.add(keys);
+            return loader.apply(keys);
+        }, maxBatchSize, window, meterRegistry);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.priceselectorapi.infrastructure.repository;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.domain.model.valueobject.PriceLookupKey;
+import com.example.priceselectorapi.infrastructure.repository.mapper.PriceRowMapper;
+import com.example.priceselectorapi.infrastructure.repository.strategy.QueryStrategyFactory;
+import com.example.priceselectorapi.infrastructure.repository.strategy.QueryStrategyFactory.QueryType;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the lookup queries against the real schema and data in H2, with
+ * {@code app.repository.query-strategy=priority-based}, and the batch query both directly and
+ * behind coalesced single-key lookups.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///repository-test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.cache.warmup.enabled=false",
+        "app.repository.query-strategy=priority-based"})
+@DisplayName("PriceRepositoryImpl Integration Tests")
+class PriceRepositoryImplIntegrationTest {
+
+    private static final LocalDateTime LOOKUP_DATE = LocalDateTime.of(2020, 6, 15, 12, 0);
+
+    @Autowired
+    private PriceRepositoryPort priceRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    @Qualifier("sqlQueries")
+    private Map<String, String> sqlQueries;
+
+    @Autowired
+    private PriceRowMapper priceRowMapper;
+
+    @Autowired
+    private QueryStrategyFactory queryStrategyFactory;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private TimeLimiterRegistry timeLimiterRegistry;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void insertTieBreakRows() {
+        // 90001: the most recent start wins among the highest priority, whatever the lower priority starts
+        insert(90001L, "2020-06-01T00:00:00", 1, 1, "10.00");
+        insert(90001L, "2020-06-10T00:00:00", 2, 1, "20.00");
+        insert(90001L, "2020-06-12T00:00:00", 3, 0, "5.00");
+        // 90002: same priority and start, the highest id wins
+        insert(90002L, "2020-06-01T00:00:00", 1, 1, "30.00");
+        insert(90002L, "2020-06-01T00:00:00", 2, 1, "31.00");
+    }
+
+    @AfterEach
+    void deleteTieBreakRows() {
+        databaseClient.sql("DELETE FROM PRICES WHERE product_id IN (90001, 90002)")
+                .fetch().rowsUpdated().block();
+    }
+
+    @Test
+    @DisplayName("Should return only the winning row for the reference scenarios")
+    void shouldReturnOnlyTheWinner() {
+        assertWinner(LocalDateTime.of(2020, 6, 14, 10, 0), 35455L, 1);
+        assertWinner(LocalDateTime.of(2020, 6, 14, 16, 0), 35455L, 2);
+        assertWinner(LocalDateTime.of(2020, 6, 14, 21, 0), 35455L, 1);
+        assertWinner(LocalDateTime.of(2020, 6, 15, 10, 0), 35455L, 3);
+        assertWinner(LocalDateTime.of(2020, 6, 16, 21, 0), 35455L, 4);
+    }
+
+    @Test
+    @DisplayName("Should break priority ties by most recent start date, then highest id")
+    void shouldBreakTiesByStartDateThenId() {
+        assertWinner(LOOKUP_DATE, 90001L, 2);
+        assertWinner(LOOKUP_DATE, 90002L, 2);
+    }
+
+    @Test
+    @DisplayName("Should return nothing when no price applies")
+    void shouldReturnNothingWhenNoPriceApplies() {
+        StepVerifier.create(priceRepository.findApplicablePrices(LocalDateTime.of(2019, 1, 1, 0, 0), 35455L, 1))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should return every applicable row in winner order with the applicable price query")
+    void applicableQueryShouldReturnAllRowsInWinnerOrder() {
+        StepVerifier.create(databaseClient.sql(sqlQueries.get("findApplicablePrices"))
+                        .bind("applicationDate", LOOKUP_DATE)
+                        .bind("productId", 90001L)
+                        .bind("brandId", 1)
+                        .map(row -> row.get("price_list", Integer.class))
+                        .all()
+                        .collectList())
+                .assertNext(priceLists -> assertThat(priceLists).containsExactly(2, 1, 3))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should read the top priority lookup from the covering index")
+    void priorityQueryShouldUseCoveringIndex() {
+        StepVerifier.create(databaseClient.sql("EXPLAIN " + sqlQueries.get("findTopPriorityPrice"))
+                        .bind("applicationDate", LOOKUP_DATE)
+                        .bind("productId", 90001L)
+                        .bind("brandId", 1)
+                        .map(row -> row.get(0, String.class))
+                        .one())
+                .assertNext(plan -> assertThat(plan).containsIgnoringCase("idx_prices_priority_lookup"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should return the applicable rows of every key with one batch query")
+    void batchQueryShouldReturnApplicableRowsOfEveryKey() {
+        List<PriceLookupKey> keys = List.of(
+                PriceLookupKey.of(LocalDateTime.of(2020, 6, 14, 16, 0), 35455L, 1),
+                PriceLookupKey.of(LOOKUP_DATE, 90001L, 1),
+                PriceLookupKey.of(LocalDateTime.of(2019, 1, 1, 0, 0), 90002L, 1));
+
+        StepVerifier.create(priceRepository.findApplicablePrices(keys)
+                        .map(price -> price.getProductId() + "/" + price.getPriceList())
+                        .collectList())
+                .assertNext(rows -> {
+                    assertThat(rows).containsExactlyInAnyOrder("35455/2", "35455/1", "90001/1", "90001/2", "90001/3");
+                    assertThat(rows.subList(0, 2)).containsExactly("35455/2", "35455/1");
+                    assertThat(rows.get(4)).isEqualTo("90001/3");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should resolve coalesced lookups with the batch query instead of the configured strategy")
+    void coalescedLookupsShouldUseBatchQuery() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceRepositoryImpl coalescingRepository = new PriceRepositoryImpl(databaseClient, priceRowMapper,
+                queryStrategyFactory, bulkheadRegistry, timeLimiterRegistry, circuitBreakerRegistry, meterRegistry);
+        ReflectionTestUtils.setField(coalescingRepository, "lookupQueryType", QueryType.PRIORITY_BASED);
+        ReflectionTestUtils.setField(coalescingRepository, "batchingEnabled", true);
+        ReflectionTestUtils.setField(coalescingRepository, "batchingWindow", Duration.ofMillis(50));
+        coalescingRepository.init();
+
+        StepVerifier.create(Mono.zip(
+                        priceLists(coalescingRepository, LocalDateTime.of(2020, 6, 14, 16, 0), 35455L),
+                        priceLists(coalescingRepository, LOOKUP_DATE, 90001L),
+                        priceLists(coalescingRepository, LOOKUP_DATE, 90002L)))
+                .assertNext(priceLists -> {
+                    assertThat(priceLists.getT1()).containsExactly(2, 1);
+                    assertThat(priceLists.getT2()).containsExactly(2, 1, 3);
+                    assertThat(priceLists.getT3()).containsExactly(2, 1);
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(meterRegistry.get("price.lookup.batch.size").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("price.lookup.batch.size").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("price.request.stage").tag("stage", "db-batch").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("price.request.stage").tag("stage", "db").timer().count()).isZero();
+        assertThat(meterRegistry.get("price.request.stage").tag("stage", "row-mapping").timer().count()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should record only single-key lookups in the request stage timers")
+    void stageTimersShouldOnlyRecordPointLookups() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceRepositoryImpl repository = new PriceRepositoryImpl(databaseClient, priceRowMapper,
+                queryStrategyFactory, bulkheadRegistry, timeLimiterRegistry, circuitBreakerRegistry, meterRegistry);
+        repository.init();
+
+        StepVerifier.create(repository.findApplicablePrices(LOOKUP_DATE, 90001L, 1)).expectNextCount(3).verifyComplete();
+        StepVerifier.create(repository.findApplicablePrices(List.of(PriceLookupKey.of(LOOKUP_DATE, 90001L, 1))))
+                .expectNextCount(3)
+                .verifyComplete();
+        StepVerifier.create(repository.findPricesInRange(LOOKUP_DATE.minusDays(30), LOOKUP_DATE, 90001L, 1))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("price.request.stage").tag("stage", "db").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("price.request.stage").tag("stage", "row-mapping").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("price.request.stage").tag("stage", "db-batch").timer().count()).isZero();
+    }
+
+    private static Mono<List<Integer>> priceLists(PriceRepositoryImpl repository, LocalDateTime applicationDate, Long productId) {
+        return repository.findApplicablePrices(applicationDate, productId, 1)
+                .map(Price::getPriceList)
+                .collectList();
+    }
+
+    private void assertWinner(LocalDateTime applicationDate, Long productId, int priceList) {
+        StepVerifier.create(priceRepository.findApplicablePrices(applicationDate, productId, 1)
+                        .map(Price::getPriceList)
+                        .collectList())
+                .assertNext(priceLists -> assertThat(priceLists).containsExactly(priceList))
+                .verifyComplete();
+    }
+
+    private void insert(Long productId, String startDate, int priceList, int priority, String amount) {
+        databaseClient.sql("INSERT INTO PRICES (brand_id, start_date, end_date, price_list, product_id, priority, price_amount, curr) "
+                        + "VALUES (1, :startDate, TIMESTAMP '2020-12-31 23:59:59', :priceList, :productId, :priority, :amount, 'EUR')")
+                .bind("startDate", LocalDateTime.parse(startDate))
+                .bind("priceList", priceList)
+                .bind("productId", productId)
+                .bind("priority", priority)
+                .bind("amount", new BigDecimal(amount))
+                .fetch().rowsUpdated().block();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.priceselectorapi.infrastructure.repository.mapped;
+
+import com.example.priceselectorapi.domain.model.Price;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///mapped-repository-test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.cache.warmup.enabled=false",
+        "app.repository.type=mapped",
+        "app.repository.mapped.snapshot.check-interval=PT0S"})
+@DisplayName("MappedPriceRepository Integration Tests")
+class MappedPriceRepositoryIntegrationTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2020, 6, 14, 10, 0);
+
+    @TempDir
+    static Path snapshotDirectory;
+
+    @DynamicPropertySource
+    static void snapshotFile(DynamicPropertyRegistry registry) {
+        registry.add("app.repository.mapped.file", () -> snapshotDirectory.resolve("prices.dat").toString());
+    }
+
+    @Autowired
+    private MappedPriceRepository repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void restoreAmounts() {
+        swapAmounts();
+    }
+
+    @Test
+    @DisplayName("Should reject the snapshot when two rows swap their amounts")
+    void shouldRejectSnapshotAfterAmountSwap() {
+        assertMorningAmount("35.50");
+
+        swapAmounts();
+        repository.loadCatalog();
+
+        assertMorningAmount("25.45");
+    }
+
+    @Test
+    @DisplayName("Should expose the time to the first price request with the snapshot in use")
+    void shouldRegisterFirstRequestGauge() {
+        assertThat(meterRegistry.find("price.startup.first.request").timeGauge()).isNotNull();
+    }
+
+    /**
+     * Swaps the amounts of the base price and the afternoon promotion, which leaves the count,
+     * sum, minimum and maximum of every column unchanged. Swapping again restores them.
+     */
+    private void swapAmounts() {
+        databaseClient.sql("UPDATE PRICES SET price_amount = CASE price_amount WHEN 35.50 THEN 25.45 ELSE 35.50 END "
+                        + "WHERE brand_id = 1 AND product_id = 35455 AND price_list IN (1, 2)")
+                .fetch().rowsUpdated().block();
+    }
+
+    private void assertMorningAmount(String amount) {
+        StepVerifier.create(repository.findApplicablePrices(MORNING, 35455L, 1).map(Price::getPriceAmount))
+                .assertNext(priceAmount -> assertThat(priceAmount).isEqualByComparingTo(new BigDecimal(amount)))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.priceselectorapi.infrastructure.repository.mapped;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PriceRecordFile Tests")
+class PriceRecordFileTest {
+
+    private static final Long PRODUCT_ID = 35455L;
+    private static final Integer BRAND_ID = 1;
+    private static final long FINGERPRINT = 0x5EED_CAFE_F00DL;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private PriceRecordFile records;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("prices.dat");
+        write(List.of(
+                PriceFactory.createPrice(9L, BRAND_ID, 1, 100L, 0,
+                        "2020-01-01T00:00:00", "2020-12-31T23:59:59", "1.00", "EUR"),
+                PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                        "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR"),
+                PriceFactory.createPrice(2L, BRAND_ID, 2, PRODUCT_ID, 1,
+                        "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"),
+                PriceFactory.createPrice(3L, BRAND_ID, 3, PRODUCT_ID, 1,
+                        "2020-06-15T00:00:00", "2020-06-15T11:00:00", "30.50", "EUR"),
+                PriceFactory.createPrice(4L, BRAND_ID, 4, PRODUCT_ID, 1,
+                        "2020-06-15T16:00:00", "2020-12-31T23:59:59", "38.95", "EUR"),
+                PriceFactory.createPrice(5L, 2, 1, PRODUCT_ID, 0,
+                        "2020-01-01T00:00:00", "2020-12-31T23:59:59", "99.00", "EUR")));
+        // Three records per chunk so lookups cross chunk boundaries
+        records = PriceRecordFile.open(file, true, 3);
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should return applicable prices ordered by priority descending")
+        void shouldReturnApplicablePricesByPriority() {
+            assertThat(priceLists("2020-06-14T10:00:00")).containsExactly(1);
+            assertThat(priceLists("2020-06-14T16:00:00")).containsExactly(2, 1);
+            assertThat(priceLists("2020-06-15T10:00:00")).containsExactly(3, 1);
+            assertThat(priceLists("2020-06-16T21:00:00")).containsExactly(4, 1);
+        }
+
+        @Test
+        @DisplayName("Should treat interval boundaries as inclusive")
+        void shouldTreatBoundariesAsInclusive() {
+            assertThat(priceLists("2020-06-14T15:00:00")).containsExactly(2, 1);
+            assertThat(priceLists("2020-06-14T18:30:00")).containsExactly(2, 1);
+            assertThat(priceLists("2020-06-14T18:30:00.000000001")).containsExactly(1);
+        }
+
+        @Test
+        @DisplayName("Should not mix prices of other products or brands")
+        void shouldIsolateProductsAndBrands() {
+            LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+            assertThat(records.findApplicable(date, 100L, BRAND_ID)).extracting(Price::getId).containsExactly(9L);
+            assertThat(records.findApplicable(date, PRODUCT_ID, 2)).extracting(Price::getId).containsExactly(5L);
+            assertThat(records.findApplicable(date, 99999L, BRAND_ID)).isEmpty();
+            assertThat(records.findApplicable(date, PRODUCT_ID, 3)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should decode the stored price unchanged")
+        void shouldDecodeStoredPrice() {
+            Price decoded = records.findApplicable(LocalDateTime.parse("2020-06-14T16:00:00"), PRODUCT_ID, BRAND_ID).get(0);
+
+            assertThat(decoded).isEqualTo(PriceFactory.createPrice(2L, BRAND_ID, 2, PRODUCT_ID, 1,
+                    "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"));
+        }
+
+        @Test
+        @DisplayName("Should return prices overlapping a window in start date order")
+        void shouldReturnPricesOverlappingWindow() {
+            List<Price> result = records.findOverlapping(LocalDateTime.parse("2020-06-14T19:00:00"),
+                    LocalDateTime.parse("2020-06-15T12:00:00"), PRODUCT_ID, BRAND_ID);
+
+            assertThat(result).extracting(Price::getPriceList).containsExactly(1, 3);
+        }
+
+        @Test
+        @DisplayName("Should walk the product ids of a brand")
+        void shouldWalkProductIdsOfBrand() {
+            assertThat(records.nextProductId(BRAND_ID, Long.MIN_VALUE)).isEqualTo(100L);
+            assertThat(records.nextProductId(BRAND_ID, 101L)).isEqualTo(PRODUCT_ID);
+            assertThat(records.nextProductId(BRAND_ID, PRODUCT_ID + 1)).isNull();
+            assertThat(records.nextProductId(3, Long.MIN_VALUE)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("File Tests")
+    class FileTests {
+
+        @Test
+        @DisplayName("Should write a header followed by fixed-width records")
+        void shouldWriteFixedWidthRecords() throws IOException {
+            assertThat(records.recordCount()).isEqualTo(6);
+            assertThat(Files.size(file)).isEqualTo(PriceRecordFile.HEADER_SIZE + 6L * PriceRecordFile.RECORD_SIZE);
+        }
+
+        @Test
+        @DisplayName("Should reject prices appended out of order and keep the current file")
+        void shouldRejectOutOfOrderPrices() {
+            try (PriceRecordFile.Writer writer = PriceRecordFile.writer(file)) {
+                writer.append(PriceFactory.createPrice(2L, BRAND_ID, 2, PRODUCT_ID, 1,
+                        "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"));
+
+                assertThatThrownBy(() -> writer.append(
+                        PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR")))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+
+            assertThat(PriceRecordFile.open(file).recordCount()).isEqualTo(6);
+            assertThat(directory).isDirectoryNotContaining("glob:**.tmp");
+        }
+
+        @Test
+        @DisplayName("Should carry the fingerprint and creation time of the snapshot")
+        void shouldCarrySnapshotMetadata() {
+            assertThat(records.fingerprint()).isEqualTo(FINGERPRINT);
+            assertThat(records.createdAt()).isBetween(Instant.now().minusSeconds(60), Instant.now());
+        }
+
+        @Test
+        @DisplayName("Should detect corrupted records through the checksum")
+        void shouldDetectCorruptedRecords() throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{42}), PriceRecordFile.HEADER_SIZE + 2L * PriceRecordFile.RECORD_SIZE);
+            }
+
+            assertThatThrownBy(() -> PriceRecordFile.open(file))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Checksum");
+            assertThat(PriceRecordFile.open(file, false).recordCount()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("Should reject files that are not price record files")
+        void shouldRejectForeignFiles() throws IOException {
+            Path foreign = Files.write(directory.resolve("foreign.dat"), new byte[PriceRecordFile.HEADER_SIZE]);
+
+            assertThatThrownBy(() -> PriceRecordFile.open(foreign))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("Should map an empty catalog")
+        void shouldMapEmptyCatalog() {
+            Path emptyFile = directory.resolve("empty.dat");
+            try (PriceRecordFile.Writer writer = PriceRecordFile.writer(emptyFile)) {
+                writer.commit(0);
+            }
+
+            PriceRecordFile empty = PriceRecordFile.open(emptyFile);
+
+            assertThat(empty.recordCount()).isZero();
+            assertThat(empty.findApplicable(LocalDateTime.parse("2020-06-14T10:00:00"), PRODUCT_ID, BRAND_ID)).isEmpty();
+        }
+    }
+
+    private List<Integer> priceLists(String applicationDate) {
+        return records.findApplicable(LocalDateTime.parse(applicationDate), PRODUCT_ID, BRAND_ID).stream()
+                .map(Price::getPriceList)
+                .toList();
+    }
+
+    private void write(List<Price> prices) {
+        try (PriceRecordFile.Writer writer = PriceRecordFile.writer(file)) {
+            prices.forEach(writer::append);
+            writer.commit(FINGERPRINT);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.priceselectorapi.infrastructure.repository.mapper;
+
+import com.example.priceselectorapi.domain.model.Price;
+import io.r2dbc.spi.Row;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PriceRowMapper Tests")
+class PriceRowMapperTest {
+
+    private static final LocalDateTime START_DATE = LocalDateTime.of(2020, 6, 14, 15, 0);
+    private static final LocalDateTime END_DATE = LocalDateTime.of(2020, 6, 14, 18, 30);
+
+    @Test
+    @DisplayName("Should map the same price by position as by name")
+    void shouldMapSamePriceInBothModes() {
+        Row row = row(new String("EUR"));
+
+        Price byName = new PriceRowMapper(PriceRowMapper.MappingMode.NAMED).mapRowToPrice(row, null);
+        Price byPosition = new PriceRowMapper(PriceRowMapper.MappingMode.POSITIONAL).mapRowToPrice(row, null);
+
+        assertThat(byPosition).isEqualTo(byName);
+        assertThat(byPosition.getValidityPeriod()).isEqualTo(byName.getValidityPeriod());
+        assertThat(byPosition.getPrice()).isEqualTo(byName.getPrice());
+    }
+
+    @Test
+    @DisplayName("Should share one currency code instance across rows")
+    void shouldInternCurrencyCodes() {
+        PriceRowMapper mapper = new PriceRowMapper(PriceRowMapper.MappingMode.POSITIONAL);
+
+        Price first = mapper.mapRowToPrice(row(new String("EUR")), null);
+        Price second = mapper.mapRowToPrice(row(new String("EUR")), null);
+
+        assertThat(second.getCurr()).isSameAs(first.getCurr());
+    }
+
+    @Test
+    @DisplayName("Should reject rows whose start date is after their end date")
+    void shouldRejectInvertedDates() {
+        Row row = mock(Row.class);
+        when(row.get(2, LocalDateTime.class)).thenReturn(END_DATE);
+        when(row.get(3, LocalDateTime.class)).thenReturn(START_DATE);
+
+        PriceRowMapper mapper = new PriceRowMapper(PriceRowMapper.MappingMode.POSITIONAL);
+
+        assertThatThrownBy(() -> mapper.mapRowToPrice(row, null))
+                .isInstanceOf(RuntimeException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject rows with a missing or negative amount in both modes")
+    void shouldRejectInvalidAmounts() {
+        for (BigDecimal amount : new BigDecimal[]{null, new BigDecimal("-0.01")}) {
+            for (PriceRowMapper.MappingMode mode : PriceRowMapper.MappingMode.values()) {
+                Row row = row("EUR", amount);
+
+                assertThatThrownBy(() -> new PriceRowMapper(mode).mapRowToPrice(row, null))
+                        .isInstanceOf(RuntimeException.class)
+                        .hasRootCauseInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject rows whose currency is not an ISO code in both modes")
+    void shouldRejectInvalidCurrencyCodes() {
+        for (String currency : new String[]{null, "EURO"}) {
+            for (PriceRowMapper.MappingMode mode : PriceRowMapper.MappingMode.values()) {
+                Row row = row(currency);
+
+                assertThatThrownBy(() -> new PriceRowMapper(mode).mapRowToPrice(row, null))
+                        .isInstanceOf(RuntimeException.class)
+                        .hasMessage("Failed to map database row to Price entity");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should intern currency codes through the table shared with compact prices")
+    void shouldShareCurrencyTable() {
+        Price price = new PriceRowMapper(PriceRowMapper.MappingMode.POSITIONAL).mapRowToPrice(row(new String("USD")), null);
+
+        assertThat(price.getCurr()).isSameAs(CurrencyCodes.codeOf(CurrencyCodes.indexOf("USD")));
+    }
+
+    private static Row row(String currency) {
+        return row(currency, new BigDecimal("25.45"));
+    }
+
+    private static Row row(String currency, BigDecimal amount) {
+        Row row = mock(Row.class);
+        stub(row, 0, "id", Long.class, 2L);
+        stub(row, 1, "brand_id", Integer.class, 1);
+        stub(row, 2, "start_date", LocalDateTime.class, START_DATE);
+        stub(row, 3, "end_date", LocalDateTime.class, END_DATE);
+        stub(row, 4, "price_list", Integer.class, 2);
+        stub(row, 5, "product_id", Long.class, 35455L);
+        stub(row, 6, "priority", Integer.class, 1);
+        stub(row, 7, "price_amount", BigDecimal.class, amount);
+        stub(row, 8, "curr", String.class, currency);
+        return row;
+    }
+
+    private static <T> void stub(Row row, int index, String name, Class<T> type, T value) {
+        lenient().when(row.get(index, type)).thenReturn(value);
+        lenient().when(row.get(name, type)).thenReturn(value);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.priceselectorapi.infrastructure.repository.memory;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CompactPrice Tests")
+class CompactPriceTest {
+
+    @Test
+    @DisplayName("Should convert back to an equal price")
+    void shouldRoundTrip() {
+        Price price = PriceFactory.createPrice(4L, 1, 1, 35455L, 1,
+                "2020-06-15T16:00:00", "2020-12-31T23:59:59", "38.95", "EUR");
+
+        assertThat(CompactPrice.of(price).toPrice()).isEqualTo(price);
+    }
+
+    @Test
+    @DisplayName("Should keep sub-second bounds, a missing id and other currencies")
+    void shouldRoundTripEdgeValues() {
+        Price price = PriceFactory.createPrice(null, 1, 1, 35455L, 0,
+                "2020-06-14T00:00:00.5", "2020-06-14T18:30:00.000000001", "0.05", "USD");
+
+        Price converted = CompactPrice.of(price).toPrice();
+
+        assertThat(converted).isEqualTo(price);
+        assertThat(converted.getCurr()).isEqualTo("USD");
+    }
+
+    @Test
+    @DisplayName("Should reject amounts with more decimals than the PRICES column")
+    void shouldRejectUnrepresentableAmount() {
+        Price price = PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.505", "EUR");
+
+        assertThatThrownBy(() -> CompactPrice.of(price))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("35.505");
+    }
+
+    @Test
+    @DisplayName("Should outrank by priority, then start date, then id")
+    void shouldOutrankLikePrice() {
+        CompactPrice base = CompactPrice.of(PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR"));
+        CompactPrice promotion = CompactPrice.of(PriceFactory.createPrice(2L, 1, 1, 35455L, 1,
+                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "25.45", "EUR"));
+        CompactPrice laterPromotion = CompactPrice.of(PriceFactory.createPrice(3L, 1, 1, 35455L, 1,
+                "2020-06-15T00:00:00", "2020-12-31T23:59:59", "30.50", "EUR"));
+        CompactPrice samePromotionHigherId = CompactPrice.of(PriceFactory.createPrice(5L, 1, 1, 35455L, 1,
+                "2020-06-15T00:00:00", "2020-12-31T23:59:59", "30.50", "EUR"));
+
+        assertThat(promotion.outranks(base)).isTrue();
+        assertThat(base.outranks(promotion)).isFalse();
+        assertThat(laterPromotion.outranks(promotion)).isTrue();
+        assertThat(samePromotionHigherId.outranks(laterPromotion)).isTrue();
+        assertThat(laterPromotion.outranks(samePromotionHigherId)).isFalse();
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.priceselectorapi.infrastructure.repository.memory;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PriceIntervalIndex Tests")
+class PriceIntervalIndexTest {
+
+    private static final Long PRODUCT_ID = 35455L;
+    private static final Integer BRAND_ID = 1;
+
+    private final PriceIntervalIndex index = PriceIntervalIndex.of(List.of(
+            PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                    "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR"),
+            PriceFactory.createPrice(2L, BRAND_ID, 2, PRODUCT_ID, 1,
+                    "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"),
+            PriceFactory.createPrice(3L, BRAND_ID, 3, PRODUCT_ID, 1,
+                    "2020-06-15T00:00:00", "2020-06-15T11:00:00", "30.50", "EUR"),
+            PriceFactory.createPrice(4L, BRAND_ID, 4, PRODUCT_ID, 1,
+                    "2020-06-15T16:00:00", "2020-12-31T23:59:59", "38.95", "EUR")
+    ));
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should return only the base price when no promotion is active")
+        void shouldReturnBasePriceOnly() {
+            assertThat(priceLists("2020-06-14T10:00:00")).containsExactly(1);
+            assertThat(priceLists("2020-06-14T21:00:00")).containsExactly(1);
+        }
+
+        @Test
+        @DisplayName("Should return overlapping prices ordered by priority descending")
+        void shouldReturnOverlappingPricesByPriority() {
+            assertThat(priceLists("2020-06-14T16:00:00")).containsExactly(2, 1);
+            assertThat(priceLists("2020-06-15T10:00:00")).containsExactly(3, 1);
+            assertThat(priceLists("2020-06-16T21:00:00")).containsExactly(4, 1);
+        }
+
+        @Test
+        @DisplayName("Should treat interval boundaries as inclusive")
+        void shouldTreatBoundariesAsInclusive() {
+            assertThat(priceLists("2020-06-14T15:00:00")).containsExactly(2, 1);
+            assertThat(priceLists("2020-06-14T18:30:00")).containsExactly(2, 1);
+            assertThat(priceLists("2020-06-14T18:30:01")).containsExactly(1);
+        }
+
+        @Test
+        @DisplayName("Should compare sub-second dates exactly against second-precision bounds")
+        void shouldCompareSubSecondDatesExactly() {
+            assertThat(priceLists("2020-06-14T18:30:00.000000001")).containsExactly(1);
+            assertThat(priceLists("2020-06-14T14:59:59.999999999")).containsExactly(1);
+            assertThat(index.findWinner(LocalDateTime.parse("2020-06-14T18:30:00.000000001"), PRODUCT_ID, BRAND_ID))
+                    .map(Price::getPriceList)
+                    .contains(1);
+        }
+
+        @Test
+        @DisplayName("Should return nothing outside every interval")
+        void shouldReturnNothingOutsideIntervals() {
+            assertThat(priceLists("2020-06-13T23:59:59")).isEmpty();
+            assertThat(priceLists("2021-01-01T00:00:00")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return prices overlapping a window in start date order")
+        void shouldReturnPricesOverlappingWindow() {
+            List<Price> result = index.findOverlapping(LocalDateTime.parse("2020-06-14T19:00:00"),
+                    LocalDateTime.parse("2020-06-15T12:00:00"), PRODUCT_ID, BRAND_ID);
+
+            assertThat(result).extracting(Price::getPriceList).containsExactly(1, 3);
+        }
+
+        @Test
+        @DisplayName("Should return nothing for unknown product or brand")
+        void shouldReturnNothingForUnknownProduct() {
+            LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+            assertThat(index.findApplicable(date, 99999L, BRAND_ID)).isEmpty();
+            assertThat(index.findApplicable(date, PRODUCT_ID, 2)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Ordering Tests")
+    class OrderingTests {
+
+        @Test
+        @DisplayName("Should break priority ties by most recent start date")
+        void shouldBreakTiesByStartDate() {
+            PriceIntervalIndex tiedIndex = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(10L, BRAND_ID, 1, PRODUCT_ID, 1,
+                            "2020-01-01T00:00:00", "2020-12-31T23:59:59", "10.00", "EUR"),
+                    PriceFactory.createPrice(11L, BRAND_ID, 2, PRODUCT_ID, 1,
+                            "2020-06-01T00:00:00", "2020-12-31T23:59:59", "9.00", "EUR")
+            ));
+
+            List<Price> result = tiedIndex.findApplicable(
+                    LocalDateTime.parse("2020-07-01T00:00:00"), PRODUCT_ID, BRAND_ID);
+
+            assertThat(result).extracting(Price::getPriceList).containsExactly(2, 1);
+        }
+
+        @Test
+        @DisplayName("Should find long intervals that started before shorter ones")
+        void shouldFindLongIntervalsBehindShortOnes() {
+            PriceIntervalIndex nestedIndex = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(20L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-01-01T00:00:00", "2020-12-31T23:59:59", "10.00", "EUR"),
+                    PriceFactory.createPrice(21L, BRAND_ID, 2, PRODUCT_ID, 1,
+                            "2020-02-01T00:00:00", "2020-02-02T00:00:00", "9.00", "EUR"),
+                    PriceFactory.createPrice(22L, BRAND_ID, 3, PRODUCT_ID, 1,
+                            "2020-03-01T00:00:00", "2020-03-02T00:00:00", "8.00", "EUR")
+            ));
+
+            List<Price> result = nestedIndex.findApplicable(
+                    LocalDateTime.parse("2020-04-01T00:00:00"), PRODUCT_ID, BRAND_ID);
+
+            assertThat(result).extracting(Price::getPriceList).containsExactly(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Rebuild Tests")
+    class IncrementalRebuildTests {
+
+        @Test
+        @DisplayName("Should resolve winners from the precomputed timeline")
+        void shouldResolveWinnersFromTimeline() {
+            LocalDateTime date = LocalDateTime.parse("2020-06-14T16:00:00");
+
+            assertThat(index.findWinner(date, PRODUCT_ID, BRAND_ID))
+                    .map(Price::getPriceList)
+                    .contains(2);
+            assertThat(index.findWinner(date, 99999L, BRAND_ID)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return the end of the segment holding the date")
+        void shouldFindSegmentEnds() {
+            assertThat(index.findSegmentEnd(LocalDateTime.parse("2020-06-14T10:00:00"), PRODUCT_ID, BRAND_ID))
+                    .contains(LocalDateTime.parse("2020-06-14T14:59:59.999999999"));
+            assertThat(index.findSegmentEnd(LocalDateTime.parse("2020-06-14T16:00:00"), PRODUCT_ID, BRAND_ID))
+                    .contains(LocalDateTime.parse("2020-06-14T18:30:00"));
+            assertThat(index.findSegmentEnd(LocalDateTime.parse("2019-01-01T00:00:00"), PRODUCT_ID, BRAND_ID)).isEmpty();
+            assertThat(index.findSegmentEnd(LocalDateTime.parse("2020-06-14T16:00:00"), 99999L, BRAND_ID)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should rebuild the domain timeline from the compact prices")
+        void shouldRebuildDomainTimeline() {
+            assertThat(index.getTimeline(PRODUCT_ID, BRAND_ID).getSegments())
+                    .extracting(segment -> segment.getPrice().getPriceList())
+                    .containsExactly(1, 2, 1, 3, 1, 4);
+        }
+
+        @Test
+        @DisplayName("Should rebuild only the replaced product into a copy")
+        void shouldRebuildOnlyReplacedProduct() {
+            PriceIntervalIndex original = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR")));
+            PriceIntervalIndex withOther = original.withProduct(BRAND_ID, 11111L, List.of(otherProduct()), 1);
+            PriceIntervalIndex.ProductIntervals untouched = withOther.intervals(11111L, BRAND_ID);
+
+            PriceIntervalIndex rebuilt = withOther.withProduct(BRAND_ID, PRODUCT_ID, List.of(
+                    PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR"),
+                    PriceFactory.createPrice(2L, BRAND_ID, 2, PRODUCT_ID, 1,
+                            "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR")), 2);
+
+            LocalDateTime date = LocalDateTime.parse("2020-06-14T16:00:00");
+            assertThat(rebuilt.findWinner(date, PRODUCT_ID, BRAND_ID)).map(Price::getPriceList).contains(2);
+            assertThat(rebuilt.intervals(11111L, BRAND_ID)).isSameAs(untouched);
+            assertThat(withOther.findWinner(date, PRODUCT_ID, BRAND_ID)).map(Price::getPriceList).contains(1);
+            assertThat(original.productCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should remove a product replaced with no prices")
+        void shouldRemoveProductWithoutPrices() {
+            PriceIntervalIndex original = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR")));
+
+            PriceIntervalIndex rebuilt = original.withProduct(BRAND_ID, PRODUCT_ID, List.of(), 1);
+
+            assertThat(rebuilt.productCount()).isZero();
+            assertThat(rebuilt.getTimeline(PRODUCT_ID, BRAND_ID).isEmpty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should ignore a rebuild read before the rows the index holds")
+        void shouldIgnoreOlderRebuild() {
+            PriceIntervalIndex catalog = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR")), 5);
+
+            assertThat(catalog.withProduct(BRAND_ID, PRODUCT_ID, List.of(), 4)).isSameAs(catalog);
+            assertThat(catalog.withBrand(BRAND_ID, List.of(), 3).productCount()).isEqualTo(1);
+            assertThat(catalog.withBrand(BRAND_ID, List.of(), 6).productCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep products rebuilt while a newer catalog was loading")
+        void shouldKeepProductsRebuiltDuringCatalogLoad() {
+            PriceIntervalIndex current = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR")), 1);
+            PriceIntervalIndex refreshed = current.withProduct(BRAND_ID, 11111L, List.of(otherProduct()), 3);
+            PriceIntervalIndex loaded = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR"),
+                    PriceFactory.createPrice(2L, BRAND_ID, 2, PRODUCT_ID, 1,
+                            "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR")), 2);
+
+            PriceIntervalIndex swapped = loaded.replace(refreshed);
+
+            assertThat(swapped.getVersion()).isEqualTo(2);
+            assertThat(swapped.intervals(11111L, BRAND_ID)).isSameAs(refreshed.intervals(11111L, BRAND_ID));
+            assertThat(swapped.findWinner(LocalDateTime.parse("2020-06-14T16:00:00"), PRODUCT_ID, BRAND_ID))
+                    .map(Price::getPriceList)
+                    .contains(2);
+            assertThat(swapped.withProduct(BRAND_ID, 11111L, List.of(), 2)).isSameAs(swapped);
+        }
+
+        @Test
+        @DisplayName("Should not swap in a catalog older than the current one")
+        void shouldNotSwapInOlderCatalog() {
+            PriceIntervalIndex current = PriceIntervalIndex.of(List.of(), 3);
+            PriceIntervalIndex loaded = PriceIntervalIndex.of(List.of(
+                    PriceFactory.createPrice(1L, BRAND_ID, 1, PRODUCT_ID, 0,
+                            "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR")), 2);
+
+            assertThat(loaded.replace(current)).isSameAs(current);
+            assertThat(current.replace(loaded)).isSameAs(current);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report product and price counts")
+    void shouldReportCounts() {
+        assertThat(index.productCount()).isEqualTo(1);
+        assertThat(index.priceCount()).isEqualTo(4);
+        assertThat(PriceIntervalIndex.empty().priceCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should list the product ids of a brand in ascending order")
+    void shouldListProductIdsOfBrand() {
+        PriceIntervalIndex brandIndex = PriceIntervalIndex.of(List.of(
+                PriceFactory.createPrice(1L, BRAND_ID, 1, 300L, 0,
+                        LocalDateTime.parse("2020-01-01T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                        new BigDecimal("1.00"), "EUR"),
+                PriceFactory.createPrice(2L, BRAND_ID, 1, 100L, 0,
+                        LocalDateTime.parse("2020-01-01T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                        new BigDecimal("1.00"), "EUR"),
+                PriceFactory.createPrice(3L, 2, 1, 200L, 0,
+                        LocalDateTime.parse("2020-01-01T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                        new BigDecimal("1.00"), "EUR")));
+
+        assertThat(brandIndex.productIds(BRAND_ID)).containsExactly(100L, 300L);
+        assertThat(brandIndex.productIds(3)).isEmpty();
+    }
+
+    private static Price otherProduct() {
+        return PriceFactory.createPrice(9L, BRAND_ID, 1, 11111L, 0,
+                "2020-01-01T00:00:00", "2020-12-31T23:59:59", "5.00", "EUR");
+    }
+
+    private List<Integer> priceLists(String applicationDate) {
+        return index.findApplicable(LocalDateTime.parse(applicationDate), PRODUCT_ID, BRAND_ID).stream()
+                .map(Price::getPriceList)
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.priceselectorapi.infrastructure.repository.strategy;
+
+import com.example.priceselectorapi.infrastructure.repository.strategy.QueryStrategyFactory.QueryType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("QueryStrategyFactory Tests")
+class QueryStrategyFactoryTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2020, 6, 14, 16, 0);
+
+    private final Map<String, String> sqlQueries = Map.of(
+            "findApplicablePrices", "applicable query",
+            "findTopPriorityPrice", "top priority query");
+    private final ApplicablePriceQueryStrategy applicableStrategy = new ApplicablePriceQueryStrategy(sqlQueries);
+    private final PriorityBasedQueryStrategy priorityStrategy = new PriorityBasedQueryStrategy(sqlQueries);
+    private final QueryStrategyFactory factory = new QueryStrategyFactory(Map.of(
+            "applicablePriceQueryStrategy", applicableStrategy,
+            "priorityBasedQueryStrategy", priorityStrategy));
+
+    @Test
+    @DisplayName("Should select the strategy registered under the query type's bean name")
+    void shouldSelectStrategyByQueryType() {
+        assertThat(factory.getStrategy(QueryType.PRIORITY_BASED)).isSameAs(priorityStrategy);
+        assertThat(factory.getStrategy(QueryType.APPLICABLE_PRICE)).isSameAs(applicableStrategy);
+        assertThat(factory.getDefaultStrategy()).isSameAs(applicableStrategy);
+        assertThat(factory.getStrategy(QueryType.PRIORITY_BASED, PriceQueryStrategy.class)).isSameAs(priorityStrategy);
+    }
+
+    @Test
+    @DisplayName("Should reject query types without a strategy or of another kind")
+    void shouldRejectUnsupportedQueryTypes() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> factory.getStrategy(QueryType.DATE_RANGE))
+                .withMessageContaining("DATE_RANGE");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> factory.getStrategy(QueryType.PRIORITY_BASED, MultiKeyPriceQueryStrategy.class));
+    }
+
+    @Test
+    @DisplayName("Should read app.repository.query-strategy values as query types")
+    void shouldConvertQueryStrategyProperty() {
+        ApplicationConversionService conversionService = new ApplicationConversionService();
+
+        assertThat(conversionService.convert("priority-based", QueryType.class)).isEqualTo(QueryType.PRIORITY_BASED);
+        assertThat(conversionService.convert("applicable-price", QueryType.class)).isEqualTo(QueryType.APPLICABLE_PRICE);
+    }
+
+    @Test
+    @DisplayName("Should run the top priority query with the three lookup parameters")
+    void priorityStrategyShouldUseTopPriorityQuery() {
+        GenericExecuteSpec executeSpec = mock(GenericExecuteSpec.class, RETURNS_SELF);
+
+        assertThat(priorityStrategy.getQuery()).isEqualTo("top priority query");
+        assertThat(priorityStrategy.getStrategyName()).isEqualTo(QueryType.PRIORITY_BASED.getStrategyName());
+        assertThat(priorityStrategy.getParameters(DATE, 35455L, 1))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("applicationDate", DATE, "productId", 35455L, "brandId", 1));
+        assertThat(priorityStrategy.bind(executeSpec, DATE, 35455L, 1)).isSameAs(executeSpec);
+        verify(executeSpec).bind("applicationDate", DATE);
+        verify(executeSpec).bind("productId", 35455L);
+        verify(executeSpec).bind("brandId", 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.priceselectorapi.infrastructure.web.caching;
+
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PriceHttpCaching Tests")
+class PriceHttpCachingTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 14, 16, 0);
+    private static final LocalDateTime PRICE_START = LocalDateTime.of(2020, 6, 1, 0, 0);
+
+    private final PriceHttpCaching httpCaching =
+            new PriceHttpCaching(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("Should derive a strong ETag that changes with the price row")
+    void shouldDeriveETagFromPriceRow() {
+        String eTag = httpCaching.eTag(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusHours(2), new BigDecimal("25.45"), "EUR"));
+
+        assertThat(eTag).matches("\"1-[0-9a-f]+\"");
+        assertThat(httpCaching.eTag(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusHours(2), new BigDecimal("25.45"), "EUR"))).isEqualTo(eTag);
+        assertThat(httpCaching.eTag(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusHours(2), new BigDecimal("25.46"), "EUR"))).isNotEqualTo(eTag);
+        assertThat(httpCaching.eTag(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusHours(3), new BigDecimal("25.45"), "EUR"))).isNotEqualTo(eTag);
+    }
+
+    @Test
+    @DisplayName("Should match If-None-Match lists, weak tags and wildcards")
+    void shouldMatchIfNoneMatch() {
+        String eTag = httpCaching.eTag(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusHours(2), new BigDecimal("25.45"), "EUR"));
+
+        assertThat(httpCaching.isNotModified(eTag, eTag)).isTrue();
+        assertThat(httpCaching.isNotModified("\"other\", W/" + eTag, eTag)).isTrue();
+        assertThat(httpCaching.isNotModified("*", eTag)).isTrue();
+        assertThat(httpCaching.isNotModified("\"other\"", eTag)).isFalse();
+        assertThat(httpCaching.isNotModified(null, eTag)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should cache for the time left until the next price boundary, capped at the configured max-age")
+    void shouldDeriveMaxAgeFromTimeLeftUntilNextBoundary() {
+        Price price = PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusDays(30), new BigDecimal("25.45"), "EUR");
+
+        assertThat(httpCaching.maxAgeOf(price, NOW.plusMinutes(20))).isEqualTo(Duration.ofMinutes(20));
+        assertThat(httpCaching.maxAgeOf(price, NOW.plusMinutes(90))).isEqualTo(Duration.ofHours(1));
+        assertThat(httpCaching.cacheControl(price, NOW.plusMinutes(20)).getHeaderValue())
+                .isEqualTo("max-age=1200");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the price end without a known boundary")
+    void shouldBoundMaxAgeByPriceEndWithoutBoundary() {
+        assertThat(httpCaching.maxAgeOf(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusMinutes(20), new BigDecimal("25.45"), "EUR"), null))
+                .isEqualTo(Duration.ofMinutes(20));
+    }
+
+    @Test
+    @DisplayName("Should give segments that already ended the full max-age")
+    void shouldGiveSettledSegmentsFullMaxAge() {
+        assertThat(httpCaching.maxAgeOf(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.plusDays(30), new BigDecimal("25.45"), "EUR"), NOW.minusMinutes(20)))
+                .isEqualTo(Duration.ofHours(1));
+        assertThat(httpCaching.maxAgeOf(PriceFactory.createPrice(1L, 1, 2, 35455L, 1,
+                PRICE_START, NOW.minusMinutes(20), new BigDecimal("25.45"), "EUR"), null))
+                .isEqualTo(Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.priceselectorapi.infrastructure.web.controller;
+
+import com.example.priceselectorapi.application.service.PriceCacheInvalidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheAdminController Tests")
+class CacheAdminControllerTest {
+
+    private static final String TOKEN = "s3cret";
+
+    @Mock
+    private PriceCacheInvalidationService priceCacheInvalidationService;
+
+    @InjectMocks
+    private CacheAdminController controller;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "token", TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should evict a product when the admin token matches")
+    void shouldEvictWithValidToken() {
+        when(priceCacheInvalidationService.invalidateProduct(1, 35455L)).thenReturn(Mono.just(3));
+
+        StepVerifier.create(controller.evictPrices(1, 35455L, TOKEN))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(response.getBody().getEvictedEntries()).isEqualTo(3);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reject requests without the admin token or with a wrong one")
+    void shouldRejectMissingOrWrongToken() {
+        StepVerifier.create(controller.evictPrices(1, null, null))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED))
+                .verifyComplete();
+        StepVerifier.create(controller.evictPrices(1, null, "wrong"))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED))
+                .verifyComplete();
+
+        verifyNoInteractions(priceCacheInvalidationService);
+    }
+
+    @Test
+    @DisplayName("Should refuse to start enabled without a token")
+    void shouldRequireToken() {
+        ReflectionTestUtils.setField(controller, "token", "");
+
+        assertThatIllegalStateException().isThrownBy(controller::init);
+    }
+}
@@ -1,30 +1,50 @@
 package com.example.priceselectorapi.infrastructure.web.controller;
 
+import com.example.priceselectorapi.application.dto.BatchPriceQueryResponseDTO;
 import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import com.example.priceselectorapi.application.dto.PriceTimelineResponseDTO;
 import com.example.priceselectorapi.domain.model.Price;
 import com.example.priceselectorapi.domain.model.port.PriceRepositoryPort;
+import com.example.priceselectorapi.infrastructure.web.filter.ServerTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, 
-    properties = {"spring.cache.type=none"})
+    properties = {"spring.cache.type=none", "app.cache.warmup.enabled=false"})
 @AutoConfigureWebTestClient
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @DisplayName("Price Controller Reactive Integration Tests")
@@ -33,6 +53,15 @@ class PriceControllerReactiveIntegrationTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Clock clock;
+
     @MockitoBean
     private PriceRepositoryPort priceRepositoryPort;
 
@@ -319,6 +348,410 @@ class PriceControllerReactiveIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Batch Price Queries")
+    class BatchPriceQueries {
+
+        @Test
+        @DisplayName("Should return results in request order with per-item status")
+        void shouldReturnResultsInRequestOrder() {
+            Price basePrice = createMockPrice(
+                35455L, 1, 1, 0,
+                new BigDecimal("35.50"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 0, 0),
+                LocalDateTime.of(2020, 12, 31, 23, 59, 59)
+            );
+            Price promotion = createMockPrice(
+                35455L, 1, 2, 1,
+                new BigDecimal("25.45"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 15, 0),
+                LocalDateTime.of(2020, 6, 14, 18, 30)
+            );
+            promotion.setId(2L);
+
+            when(priceRepositoryPort.findApplicablePrices(anyCollection()))
+                .thenReturn(Flux.just(promotion, basePrice));
+
+            webTestClient.post()
+                .uri("/api/v1/prices/query/batch")
+                .bodyValue(Map.of("items", List.of(
+                    Map.of("applicationDate", "2020-06-14T16:00:00", "productId", 35455, "brandId", 1),
+                    Map.of("applicationDate", "2020-06-14T10:00:00", "productId", 99999, "brandId", 1),
+                    Map.of("applicationDate", "2020-06-14T10:00:00", "productId", 35455, "brandId", 1)
+                )))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchPriceQueryResponseDTO.class)
+                .value(response -> {
+                    assertThat(response.getResults())
+                        .extracting(BatchPriceQueryResponseDTO.Result::getStatus)
+                        .containsExactly(BatchPriceQueryResponseDTO.Status.FOUND,
+                            BatchPriceQueryResponseDTO.Status.NOT_FOUND,
+                            BatchPriceQueryResponseDTO.Status.FOUND);
+                    assertThat(response.getResults().get(0).getPrice().getPriceList()).isEqualTo(2);
+                    assertThat(response.getResults().get(1).getProductId()).isEqualTo(99999L);
+                    assertThat(response.getResults().get(1).getPrice()).isNull();
+                    assertThat(response.getResults().get(2).getPrice().getFinalPrice())
+                        .isEqualTo(new BigDecimal("35.50"));
+                });
+
+            verify(priceRepositoryPort, times(1)).findApplicablePrices(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an empty batch")
+        void shouldReturn400ForEmptyBatch() {
+            webTestClient.post()
+                .uri("/api/v1/prices/query/batch")
+                .bodyValue(Map.of("items", List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+            verify(priceRepositoryPort, never()).findApplicablePrices(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should return 400 when an item is invalid")
+        void shouldReturn400ForInvalidItem() {
+            webTestClient.post()
+                .uri("/api/v1/prices/query/batch")
+                .bodyValue(Map.of("items", List.of(
+                    Map.of("applicationDate", "2020-06-14T10:00:00", "productId", 0, "brandId", 1)
+                )))
+                .exchange()
+                .expectStatus().isBadRequest();
+        }
+    }
+
+    @Nested
+    @DisplayName("Price Snapshot Stream")
+    class PriceSnapshotStream {
+
+        @Test
+        @DisplayName("Should stream the winning price of each product as NDJSON")
+        void shouldStreamWinningPricePerProduct() {
+            Price promotion = createMockPrice(
+                35455L, 1, 2, 1,
+                new BigDecimal("25.45"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 15, 0),
+                LocalDateTime.of(2020, 6, 14, 18, 30)
+            );
+            Price basePrice = createMockPrice(
+                35455L, 1, 1, 0,
+                new BigDecimal("35.50"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 0, 0),
+                LocalDateTime.of(2020, 12, 31, 23, 59, 59)
+            );
+            Price otherProduct = createMockPrice(
+                35456L, 1, 1, 0,
+                new BigDecimal("12.00"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 0, 0),
+                LocalDateTime.of(2020, 12, 31, 23, 59, 59)
+            );
+
+            when(priceRepositoryPort.findApplicablePricesByBrand(any(LocalDateTime.class), eq(1)))
+                .thenReturn(Flux.just(promotion, basePrice, otherProduct));
+
+            webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/api/v1/prices/snapshot")
+                    .queryParam("applicationDate", "2020-06-14T16:00:00")
+                    .queryParam("brandId", 1)
+                    .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(PriceResponseDTO.class)
+                .value(prices -> {
+                    assertThat(prices).extracting(PriceResponseDTO::getProductId).containsExactly(35455L, 35456L);
+                    assertThat(prices.get(0).getPriceList()).isEqualTo(2);
+                });
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an invalid brand id")
+        void shouldReturn400ForInvalidBrandId() {
+            webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/api/v1/prices/snapshot")
+                    .queryParam("applicationDate", "2020-06-14T16:00:00")
+                    .queryParam("brandId", "invalid-brand-id")
+                    .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+        }
+    }
+
+    @Nested
+    @DisplayName("Price Timeline")
+    class PriceTimelineQueries {
+
+        @Test
+        @DisplayName("Should return the resolved segments between two dates")
+        void shouldReturnResolvedSegments() {
+            Price basePrice = createMockPrice(
+                35455L, 1, 1, 0,
+                new BigDecimal("35.50"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 0, 0),
+                LocalDateTime.of(2020, 12, 31, 23, 59, 59)
+            );
+            Price promotion = createMockPrice(
+                35455L, 1, 2, 1,
+                new BigDecimal("25.45"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 15, 0),
+                LocalDateTime.of(2020, 6, 14, 18, 30)
+            );
+            promotion.setId(2L);
+
+            when(priceRepositoryPort.findPricesInRange(any(LocalDateTime.class), any(LocalDateTime.class), eq(35455L), eq(1)))
+                .thenReturn(Flux.just(basePrice, promotion));
+
+            webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/api/v1/prices/timeline")
+                    .queryParam("from", "2020-06-14T10:00:00")
+                    .queryParam("to", "2020-06-14T20:00:00")
+                    .queryParam("productId", 35455)
+                    .queryParam("brandId", 1)
+                    .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PriceTimelineResponseDTO.class)
+                .value(response -> {
+                    assertThat(response.getSegments())
+                        .extracting(PriceTimelineResponseDTO.Segment::getPriceList)
+                        .containsExactly(1, 2, 1);
+                    assertThat(response.getSegments().get(0).getStartDate())
+                        .isEqualTo(LocalDateTime.of(2020, 6, 14, 10, 0));
+                    assertThat(response.getSegments().get(1).getFinalPrice()).isEqualTo(new BigDecimal("25.45"));
+                    assertThat(response.getSegments().get(2).getEndDate())
+                        .isEqualTo(LocalDateTime.of(2020, 6, 14, 20, 0));
+                });
+        }
+
+        @Test
+        @DisplayName("Should return 400 when the window ends before it starts")
+        void shouldReturn400ForInvertedWindow() {
+            webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/api/v1/prices/timeline")
+                    .queryParam("from", "2020-06-15T00:00:00")
+                    .queryParam("to", "2020-06-14T00:00:00")
+                    .queryParam("productId", 35455)
+                    .queryParam("brandId", 1)
+                    .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+        }
+    }
+
+    @Nested
+    @DisplayName("Stale Fallback")
+    class StaleFallback {
+
+        @Test
+        @DisplayName("Should serve the last known price marked stale while the database is unavailable")
+        void shouldServeLastKnownPriceWhenDatabaseUnavailable() {
+            Price mockPrice = createMockPrice(
+                35455L, 1, 2, 1,
+                new BigDecimal("25.45"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 15, 0),
+                LocalDateTime.of(2020, 6, 14, 18, 30)
+            );
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.just(mockPrice))
+                .thenReturn(Flux.error(new DataAccessResourceFailureException("Database unavailable")));
+
+            queryPrice("2020-06-14T16:00:00", 35455L)
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(PriceController.STALE_HEADER);
+            cacheManager.getCache("prices").clear();
+
+            queryPrice("2020-06-14T16:00:00", 35455L)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PriceController.STALE_HEADER, "true")
+                .expectBody(PriceResponseDTO.class)
+                .value(response -> assertThat(response.getFinalPrice()).isEqualTo(new BigDecimal("25.45")));
+        }
+
+        @Test
+        @DisplayName("Should return 503 when the database is unavailable and no price is known")
+        void shouldReturn503WithoutLastKnownPrice() {
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.error(new DataAccessResourceFailureException("Database unavailable")));
+
+            queryPrice("2020-06-14T16:00:00", 35455L)
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        private WebTestClient.ResponseSpec queryPrice(String applicationDate, Long productId) {
+            return webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/api/v1/prices/query")
+                    .queryParam("applicationDate", applicationDate)
+                    .queryParam("productId", productId)
+                    .queryParam("brandId", 1)
+                    .build())
+                .exchange();
+        }
+    }
+
+    @Nested
+    @DisplayName("Server Timing")
+    class ServerTiming {
+
+        @Test
+        @DisplayName("Should break the request time down by stage when asked to")
+        void shouldReturnServerTimingWhenRequested() {
+            Price mockPrice = createMockPrice(
+                35455L, 1, 1, 0,
+                new BigDecimal("35.50"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 0, 0),
+                LocalDateTime.of(2020, 12, 31, 23, 59, 59)
+            );
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.just(mockPrice));
+
+            webTestClient.get()
+                .uri("/api/v1/prices/query?applicationDate=2020-06-14T10:00:00&productId=35455&brandId=1")
+                .header(ServerTimingFilter.REQUEST_HEADER, "true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(ServerTimingFilter.RESPONSE_HEADER, serverTiming -> assertThat(serverTiming)
+                    .matches("cache;dur=\\d+\\.\\d{3}, dto-mapping;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"));
+        }
+
+        @Test
+        @DisplayName("Should not add the header unless asked to")
+        void shouldOmitServerTimingByDefault() {
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.empty());
+
+            webTestClient.get()
+                .uri("/api/v1/prices/query?applicationDate=2020-06-14T10:00:00&productId=35455&brandId=1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().doesNotExist(ServerTimingFilter.RESPONSE_HEADER);
+        }
+    }
+
+    @Nested
+    @DisplayName("HTTP Caching")
+    class HttpCaching {
+
+        @Test
+        @DisplayName("Should answer with an ETag and a Cache-Control max-age")
+        void shouldReturnCachingHeaders() {
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.just(endedPrice()));
+
+            webTestClient.get()
+                .uri("/api/v1/prices/query?applicationDate=2020-06-14T10:00:00&productId=35455&brandId=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, eTag -> assertThat(eTag).matches("\"1-[0-9a-f]+\""))
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofHours(1)))
+                .expectBody(PriceResponseDTO.class)
+                .value(response -> assertThat(response.getFinalPrice()).isEqualByComparingTo("35.50"));
+        }
+
+        @Test
+        @DisplayName("Should answer a matching If-None-Match with 304 and no body")
+        void shouldReturnNotModifiedForMatchingETag() {
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.just(endedPrice()));
+            String uri = "/api/v1/prices/query?applicationDate=2020-06-14T10:00:00&productId=35455&brandId=1";
+            String eTag = webTestClient.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .returnResult(PriceResponseDTO.class)
+                .getResponseHeaders().getETag();
+
+            webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should answer a matching If-None-Match from the cache without the lookup")
+        void shouldReturnNotModifiedFromCache() {
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.just(endedPrice()));
+            String uri = "/api/v1/prices/query?applicationDate=2020-06-14T10:00:00&productId=35455&brandId=1";
+            String eTag = webTestClient.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .returnResult(PriceResponseDTO.class)
+                .getResponseHeaders().getETag();
+            long cacheLookups = meterRegistry.get("price.request.stage").tag("stage", "cache").timer().count();
+
+            webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofHours(1)));
+
+            assertThat(meterRegistry.get("price.request.stage").tag("stage", "cache").timer().count())
+                .isEqualTo(cacheLookups);
+            verify(priceRepositoryPort, times(1)).findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should count one cache hit for a revalidation with a changed ETag")
+        void shouldCountOneHitForChangedETag() {
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.just(endedPrice()));
+            String uri = "/api/v1/prices/query?applicationDate=2020-06-14T10:00:00&productId=35455&brandId=1";
+            webTestClient.get().uri(uri).exchange().expectStatus().isOk();
+            double hits = meterRegistry.get("price.cache.hits").tag("type", "positive").counter().count();
+            double misses = meterRegistry.get("price.cache.misses").counter().count();
+
+            webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"changed\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PriceResponseDTO.class)
+                .value(response -> assertThat(response.getFinalPrice()).isEqualByComparingTo("35.50"));
+
+            assertThat(meterRegistry.get("price.cache.hits").tag("type", "positive").counter().count())
+                .isEqualTo(hits + 1);
+            assertThat(meterRegistry.get("price.cache.misses").counter().count()).isEqualTo(misses);
+        }
+
+        @Test
+        @DisplayName("Should derive max-age from the time left until the next price boundary of the product")
+        void shouldDeriveMaxAgeFromSegmentEnd() {
+            LocalDateTime applicationDate = LocalDateTime.of(2020, 6, 14, 10, 0);
+            when(priceRepositoryPort.findApplicablePrices(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(Flux.just(endedPrice()));
+            when(priceRepositoryPort.findSegmentEnd(applicationDate, 35455L, 1))
+                .thenReturn(Optional.of(LocalDateTime.now(clock).plusMinutes(20)));
+
+            webTestClient.get()
+                .uri("/api/v1/prices/query?applicationDate=2020-06-14T10:00:00&productId=35455&brandId=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.CACHE_CONTROL, cacheControl ->
+                    assertThat(Long.parseLong(cacheControl.substring("max-age=".length())))
+                        .isBetween(Duration.ofMinutes(19).toSeconds(), Duration.ofMinutes(20).toSeconds()));
+        }
+
+        private Price endedPrice() {
+            return createMockPrice(
+                35455L, 1, 1, 0,
+                new BigDecimal("35.50"), "EUR",
+                LocalDateTime.of(2020, 6, 14, 0, 0),
+                LocalDateTime.of(2020, 12, 31, 23, 59, 59)
+            );
+        }
+    }
+
     private Price createMockPrice(Long productId, Integer brandId, Integer priceList, 
                                  Integer priority, BigDecimal price, String currency,
                                  LocalDateTime startDate, LocalDateTime endDate) {
@@ -0,0 +1,65 @@
+package com.example.priceselectorapi.infrastructure.web.encoding;
+
+import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import com.example.priceselectorapi.application.mapper.PriceMapper;
+import com.example.priceselectorapi.domain.model.Price;
+import com.example.priceselectorapi.domain.model.factory.PriceFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("EncodedPriceResponseCache Tests")
+class EncodedPriceResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final PriceMapper priceMapper = new PriceMapper();
+
+    private EncodedPriceResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+        cache = new EncodedPriceResponseCache(priceMapper, configurer);
+        cache.init();
+    }
+
+    @Test
+    @DisplayName("Should encode a price exactly as the JSON codec writes its response DTO")
+    void shouldEncodeLikeJsonCodec() throws Exception {
+        Price price = PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR");
+
+        byte[] encoded = cache.encode(price);
+
+        assertThat(encoded).isEqualTo(objectMapper.writeValueAsBytes(priceMapper.toResponseDTO(price)));
+        assertThat(objectMapper.readValue(encoded, PriceResponseDTO.class).getFinalPrice())
+                .isEqualByComparingTo("35.50");
+    }
+
+    @Test
+    @DisplayName("Should encode each price once and serve the same bytes afterwards")
+    void shouldReuseEncodedResponse() {
+        Price price = PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR");
+
+        assertThat(cache.encode(price)).isSameAs(cache.encode(price));
+    }
+
+    @Test
+    @DisplayName("Should key encoded responses by price identity")
+    void shouldKeyByPriceIdentity() {
+        Price price = PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR");
+        Price reloaded = PriceFactory.createPrice(1L, 1, 1, 35455L, 0,
+                "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR");
+
+        assertThat(cache.encode(reloaded)).isNotSameAs(cache.encode(price)).isEqualTo(cache.encode(price));
+    }
+}
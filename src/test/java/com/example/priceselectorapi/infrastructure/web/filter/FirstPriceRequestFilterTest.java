@@ -0,0 +1,59 @@
+package com.example.priceselectorapi.infrastructure.web.filter;
+
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("FirstPriceRequestFilter Tests")
+class FirstPriceRequestFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong uptime = new AtomicLong(1_500);
+    private FirstPriceRequestFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new FirstPriceRequestFilter(meterRegistry, uptime::get);
+    }
+
+    @Test
+    @DisplayName("Should record only the first successful price request")
+    void shouldRecordFirstSuccessfulPriceRequest() {
+        assertThat(firstRequestMillis()).isNaN();
+
+        serve("/actuator/health", HttpStatus.OK);
+        serve("/api/v1/prices/query", HttpStatus.NOT_FOUND);
+        assertThat(firstRequestMillis()).isNaN();
+
+        serve("/api/v1/prices/query", HttpStatus.OK);
+        uptime.set(9_000);
+        serve("/api/v1/prices/query", HttpStatus.OK);
+
+        assertThat(firstRequestMillis()).isEqualTo(1_500);
+    }
+
+    private void serve(String path, HttpStatus status) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        WebFilterChain chain = served -> Mono.fromRunnable(() -> served.getResponse().setStatusCode(status));
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+    }
+
+    private double firstRequestMillis() {
+        TimeGauge gauge = meterRegistry.get("price.startup.first.request").timeGauge();
+        return gauge.value(TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.priceselectorapi.infrastructure.web.filter;
+
+import com.example.priceselectorapi.application.metrics.RequestStage;
+import com.example.priceselectorapi.application.metrics.StageTimings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ServerTimingFilter Tests")
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+
+    @Test
+    @DisplayName("Should report the stages recorded by a request sending the opt-in header")
+    void shouldReportStagesWhenRequested() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/prices/query")
+                .header(ServerTimingFilter.REQUEST_HEADER, "true"));
+
+        serve(exchange);
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(ServerTimingFilter.RESPONSE_HEADER))
+                .matches("cache;dur=0\\.250, db;dur=3\\.100, total;dur=\\d+\\.\\d{3}");
+    }
+
+    @Test
+    @DisplayName("Should leave requests without the opt-in header untouched")
+    void shouldSkipRequestsWithoutHeader() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/prices/query"));
+
+        serve(exchange);
+
+        assertThat(exchange.getResponse().getHeaders().containsKey(ServerTimingFilter.RESPONSE_HEADER)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should time every price request, and only those, when enabled globally")
+    void shouldTimePriceRequestsWhenEnabled() {
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        MockServerWebExchange priceRequest = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/prices/query"));
+        MockServerWebExchange healthRequest = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+        serve(priceRequest);
+        serve(healthRequest);
+
+        assertThat(priceRequest.getResponse().getHeaders().getFirst(ServerTimingFilter.RESPONSE_HEADER)).startsWith("cache;dur=");
+        assertThat(healthRequest.getResponse().getHeaders().containsKey(ServerTimingFilter.RESPONSE_HEADER)).isFalse();
+    }
+
+    private void serve(MockServerWebExchange exchange) {
+        WebFilterChain chain = served -> Mono.deferContextual(context -> {
+            StageTimings timings = StageTimings.from(context);
+            if (timings != null) {
+                timings.record(RequestStage.CACHE, TimeUnit.MICROSECONDS.toNanos(250));
+                timings.record(RequestStage.DATABASE, TimeUnit.MICROSECONDS.toNanos(3_100));
+            }
+            return served.getResponse().setComplete();
+        });
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+    }
+}
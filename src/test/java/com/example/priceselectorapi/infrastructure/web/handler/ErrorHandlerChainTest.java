@@ -1,6 +1,10 @@
 package com.example.priceselectorapi.infrastructure.web.handler;
 
 import com.example.priceselectorapi.application.dto.PriceResponseDTO;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +22,7 @@ import reactor.test.StepVerifier;
 import jakarta.validation.ConstraintViolationException;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -120,6 +125,24 @@ class ErrorHandlerChainTest {
                     .verifyComplete();
         }
 
+        @Test
+        @DisplayName("Should handle lookups rejected by the repository's resilience guards")
+        void shouldHandleRejectedLookups() {
+            CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("priceRepository");
+            circuitBreaker.transitionToOpenState();
+
+            assertThat(databaseErrorHandler.canHandle(
+                    CallNotPermittedException.createCallNotPermittedException(circuitBreaker))).isTrue();
+            assertThat(databaseErrorHandler.canHandle(
+                    BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("priceRepository")))).isTrue();
+            assertThat(databaseErrorHandler.canHandle(new TimeoutException("Lookup timed out"))).isTrue();
+
+            StepVerifier.create(databaseErrorHandler.handle(new TimeoutException("Lookup timed out")))
+                    .assertNext(response ->
+                        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                    .verifyComplete();
+        }
+
         @Test
         @DisplayName("Should not handle IllegalArgumentException")
         void shouldNotHandleIllegalArgumentException() {